@@ -0,0 +1,146 @@
+package sushi.compile.distance;
+
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sushi.compile.reflection.ObjectField;
+
+/**
+ * The distance of large object graphs with the two object-graph engines,
+ * and the lockstep traversal of two deep linked lists with a {@link PairWorklist}
+ * and with a {@link LinkedList} of pairs, the worklist the engines used
+ * before. {@link DistanceBySimilarityOfObjectGraphs} is measured on balanced
+ * trees rather than on deep lists, because the identifier it gives to each
+ * node is as long as the path from the root, and on a deep list these take
+ * memory quadratic in the number of nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class ObjectGraphDistanceBenchmark {
+	@Param({ "100000", "1000000" })
+	public int nodes;
+
+	private ListNode targetList, candidateList;
+	private TreeNode targetTree, candidateTree;
+	private final HashSet<ObjectField> nullObjectFields = new HashSet<>();
+
+	static final class ListNode {
+		int value;
+		ListNode next;
+
+		ListNode(int value, ListNode next) {
+			this.value = value;
+			this.next = next;
+		}
+	}
+
+	static final class TreeNode {
+		int value;
+		TreeNode left, right;
+
+		TreeNode(int value, TreeNode left, TreeNode right) {
+			this.value = value;
+			this.left = left;
+			this.right = right;
+		}
+	}
+
+	static final class Pair {
+		final Object first, second;
+
+		Pair(Object first, Object second) {
+			this.first = first;
+			this.second = second;
+		}
+	}
+
+	@Setup
+	public void setup() {
+		this.targetList = null;
+		this.candidateList = null;
+		for (int i = this.nodes - 1; i >= 0; --i) {
+			this.targetList = new ListNode(i, this.targetList);
+			this.candidateList = new ListNode(candidateValue(i), this.candidateList);
+		}
+		this.targetTree = tree(0, this.nodes, false);
+		this.candidateTree = tree(0, this.nodes, true);
+	}
+
+	private static int candidateValue(int i) {
+		return (i % 1000 == 0 ? -i : i); //a few different values
+	}
+
+	private static TreeNode tree(int from, int to, boolean candidate) {
+		if (from >= to) {
+			return null;
+		}
+		final int mid = (from + to) >>> 1;
+		return new TreeNode((candidate ? candidateValue(mid) : mid), tree(from, mid, candidate), tree(mid + 1, to, candidate));
+	}
+
+	@Benchmark
+	public double objectGraphsTree() {
+		return DistanceBySimilarityOfObjectGraphs.distance(null, -1, this.targetTree, this.candidateTree);
+	}
+
+	@Benchmark
+	public double sbesTree() {
+		return DistanceSBES.distance(this.nullObjectFields, this.targetTree, this.candidateTree);
+	}
+
+	@Benchmark
+	public double sbesList() {
+		return DistanceSBES.distance(this.nullObjectFields, this.targetList, this.candidateList);
+	}
+
+	@Benchmark
+	public int pairWorklistList() {
+		final PairWorklist worklist = new PairWorklist();
+		worklist.add(this.targetList, this.candidateList);
+		int visited = 0;
+		while (!worklist.isEmpty()) {
+			final ListNode first = (ListNode) worklist.peekFirst();
+			final ListNode second = (ListNode) worklist.peekSecond();
+			worklist.removeFirst();
+			++visited;
+			if (first.next != null && second.next != null) {
+				worklist.add(first.next, second.next);
+			}
+		}
+		return visited;
+	}
+
+	@Benchmark
+	public int linkedListOfPairsList() {
+		final LinkedList<Pair> worklist = new LinkedList<>();
+		worklist.add(new Pair(this.targetList, this.candidateList));
+		int visited = 0;
+		while (!worklist.isEmpty()) {
+			final Pair pair = worklist.remove(0);
+			final ListNode first = (ListNode) pair.first;
+			final ListNode second = (ListNode) pair.second;
+			++visited;
+			if (first.next != null && second.next != null) {
+				worklist.add(new Pair(first.next, second.next));
+			}
+		}
+		return visited;
+	}
+}
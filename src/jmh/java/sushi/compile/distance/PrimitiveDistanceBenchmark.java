@@ -0,0 +1,113 @@
+package sushi.compile.distance;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import sushi.util.ArrayUtils;
+
+/**
+ * The distance of arrays of primitive and boxed values. The
+ * {@code Copied} benchmarks copy the boxed arrays to arrays of
+ * primitive values before comparing them, as {@link PrimitiveDistance}
+ * did before comparing them in place. The {@code Unrolled} benchmark
+ * is a 4-way unrolled kernel with {@code long} accumulators, the
+ * alternative to the plain loop of {@link PrimitiveDistance}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PrimitiveDistanceBenchmark {
+	@Param({ "16", "1000", "100000", "1000000" })
+	public int size;
+
+	private int[] ints1, ints2;
+	private Integer[] boxedInts1, boxedInts2;
+	private double[] doubles1, doubles2;
+	private Double[] boxedDoubles1, boxedDoubles2;
+
+	@Setup
+	public void setup() {
+		final Random random = new Random(42);
+		this.ints1 = new int[this.size];
+		this.ints2 = new int[this.size];
+		this.boxedInts1 = new Integer[this.size];
+		this.boxedInts2 = new Integer[this.size];
+		this.doubles1 = new double[this.size];
+		this.doubles2 = new double[this.size];
+		this.boxedDoubles1 = new Double[this.size];
+		this.boxedDoubles2 = new Double[this.size];
+		for (int i = 0; i < this.size; ++i) {
+			this.ints1[i] = random.nextInt(1000);
+			this.ints2[i] = random.nextInt(1000);
+			this.boxedInts1[i] = Integer.valueOf(this.ints1[i]);
+			this.boxedInts2[i] = Integer.valueOf(this.ints2[i]);
+			this.doubles1[i] = random.nextDouble();
+			this.doubles2[i] = random.nextDouble();
+			this.boxedDoubles1[i] = Double.valueOf(this.doubles1[i]);
+			this.boxedDoubles2[i] = Double.valueOf(this.doubles2[i]);
+		}
+	}
+
+	@Benchmark
+	public double intPrimitive() {
+		return PrimitiveDistance.distance(this.ints1, this.ints2);
+	}
+
+	@Benchmark
+	public double intPrimitiveUnrolled() {
+		final int[] a = this.ints1, b = this.ints2;
+		final int n = Math.min(a.length, b.length);
+		long d0 = 0, d1 = 0, d2 = 0, d3 = 0;
+		int i = 0;
+		for (; i + 3 < n; i += 4) {
+			d0 += Math.abs(a[i] - b[i]);
+			d1 += Math.abs(a[i + 1] - b[i + 1]);
+			d2 += Math.abs(a[i + 2] - b[i + 2]);
+			d3 += Math.abs(a[i + 3] - b[i + 3]);
+		}
+		for (; i < n; ++i) {
+			d0 += Math.abs(a[i] - b[i]);
+		}
+		return (double) (d0 + d1 + d2 + d3) + Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
+	}
+
+	@Benchmark
+	public double intBoxedInPlace() {
+		return PrimitiveDistance.distance(this.boxedInts1, this.boxedInts2);
+	}
+
+	@Benchmark
+	public double intBoxedCopied() {
+		return PrimitiveDistance.distance(ArrayUtils.toPrimitive(this.boxedInts1), ArrayUtils.toPrimitive(this.boxedInts2));
+	}
+
+	@Benchmark
+	public double doublePrimitive() {
+		return PrimitiveDistance.distance(this.doubles1, this.doubles2);
+	}
+
+	@Benchmark
+	public double doubleBoxedInPlace() {
+		return PrimitiveDistance.distance(this.boxedDoubles1, this.boxedDoubles2);
+	}
+
+	@Benchmark
+	public double doubleBoxedCopied() {
+		return PrimitiveDistance.distance(ArrayUtils.toPrimitive(this.boxedDoubles1), ArrayUtils.toPrimitive(this.boxedDoubles2));
+	}
+}
@@ -0,0 +1,99 @@
+package sushi.compile.path_condition_distance;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The evaluation of compiled origins with the {@link OriginAccessBackend}s:
+ * a chain of field reads, a static field read and a static method invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OriginAccessBenchmark {
+	private static final String ROOT = "{ROOT}:this";
+	private static final String PACKAGE = "sushi/compile/path_condition_distance/";
+	private static final String HOLDER = PACKAGE + "OriginAccessBenchmark$Holder";
+	private static final String LIST = PACKAGE + "OriginAccessBenchmark$MyList";
+	private static final String NODE = PACKAGE + "OriginAccessBenchmark$Node";
+
+	static final class Node {
+		private final int value;
+		private final Node next;
+
+		Node(int value, Node next) {
+			this.value = value;
+			this.next = next;
+		}
+	}
+
+	static final class MyList {
+		private Node head;
+	}
+
+	static final class Holder {
+		private static int count = 42;
+		private MyList list;
+
+		static int twice(int x) {
+			return 2 * x;
+		}
+	}
+
+	@Param({ "REFLECTION", "METHOD_HANDLES", "FUSED_METHOD_HANDLES" })
+	public OriginAccessBackend backend;
+
+	private SushiLibCache cache;
+	private CandidateBackbone backbone;
+	private Map<String, Object> candidateObjects;
+	private Map<Long, String> constants;
+	private ParsedOrigin fieldChain, staticField, methodInvocation;
+
+	@Setup
+	public void setup() {
+		final ClassLoader classLoader = OriginAccessBenchmark.class.getClassLoader();
+		final Holder holder = new Holder();
+		holder.list = new MyList();
+		holder.list.head = new Node(1, new Node(2, new Node(3, null)));
+		this.cache = new SushiLibCache(this.backend);
+		this.backbone = new CandidateBackbone(classLoader);
+		this.candidateObjects = new HashMap<>();
+		this.candidateObjects.put(ROOT, holder);
+		this.candidateObjects.put("{V0}", Integer.valueOf(21));
+		this.constants = new HashMap<>();
+		this.fieldChain = this.cache.getParsedOrigin(ROOT + "." + HOLDER + ":list." + LIST + ":head." + NODE + ":next." + NODE + ":next." + NODE + ":value", classLoader);
+		this.staticField = this.cache.getParsedOrigin("[" + HOLDER + "]." + HOLDER + ":count", classLoader);
+		this.methodInvocation = this.cache.getParsedOrigin("<" + HOLDER + ":(I)I:twice@{V0}@>", classLoader);
+	}
+
+	@Benchmark
+	public Object fieldChain() throws Exception {
+		return this.fieldChain.get(this.candidateObjects, this.backbone, this.constants, this.cache);
+	}
+
+	@Benchmark
+	public Object staticField() throws Exception {
+		return this.staticField.get(this.candidateObjects, this.backbone, this.constants, this.cache);
+	}
+
+	@Benchmark
+	public Object methodInvocation() throws Exception {
+		return this.methodInvocation.get(this.candidateObjects, this.backbone, this.constants, this.cache);
+	}
+}
@@ -0,0 +1,184 @@
+package sushi.compile.distance;
+
+import java.util.Arrays;
+
+/**
+ * The bit-parallel algorithm of Myers for the edit distance, in the
+ * blockwise formulation of Hyyr&ouml;. The columns of the dynamic programming
+ * matrix are encoded as bit vectors of vertical deltas, 64 rows per
+ * {@code long} block, and each column is computed from the previous one
+ * with a constant number of word operations per block. The rows are
+ * the characters of the shorter string, the columns the characters of
+ * the longer one, thus it takes O(n &middot; &lceil;m / 64&rceil;) time
+ * and O(m) memory. With a first row of zeros, the same algorithm finds
+ * the substring of the longer string that is nearest to the shorter
+ * string.
+ */
+final class BitParallelEditDistance {
+	/** Below this number of cells of the matrix the two-row algorithm is faster. */
+	static final int MIN_CELLS = 128;
+
+	/** 
+	 * The number of cells that the two-row algorithm computes in about 
+	 * the time this algorithm takes to compute a block of a column.
+	 */
+	static final int CELLS_PER_BLOCK = 8;
+
+	private static final int ASCII = 128;
+
+	private BitParallelEditDistance() {
+		//do not instantiate!
+	}
+
+	/**
+	 * Returns the number of blocks of a column.
+	 *
+	 * @param m the length of the shorter string.
+	 * @return an {@code int}.
+	 */
+	static int blocks(int m) {
+		return (m + 63) >>> 6;
+	}
+
+	/**
+	 * Computes the edit distance of two strings.
+	 *
+	 * @param s a {@link String}, not {@code null}.
+	 * @param t a {@link String}, not {@code null}.
+	 * @return the same as {@link StringDistanceFunctions#distanceEditLevenshtein(String, String)}.
+	 */
+	static int distance(String s, String t) {
+		final String pattern = (s.length() <= t.length() ? s : t);
+		final String text = (pattern == s ? t : s);
+		if (pattern.length() == 0) {
+			return text.length();
+		}
+		return run(pattern, text, true);
+	}
+
+	/**
+	 * Computes the minimum edit distance of a string from the substrings
+	 * of another string (Sellers).
+	 *
+	 * @param superstring a {@link String}, not {@code null}.
+	 * @param substring a nonempty {@link String}.
+	 * @return the same as {@link StringDistanceFunctions#distanceContainment(String, String)}
+	 *         when {@code superstring} is longer than {@code substring}.
+	 */
+	static int distanceContainment(String superstring, String substring) {
+		return run(substring, superstring, false);
+	}
+
+	/**
+	 * Runs the algorithm.
+	 *
+	 * @param pattern a nonempty {@link String}, whose characters are the rows.
+	 * @param text a {@link String}, whose characters are the columns.
+	 * @param global if {@code true} the first row is 0, 1, 2... and the 
+	 *        result is the distance at the last column; otherwise the first
+	 *        row is all 0 and the result is the minimum distance over all the
+	 *        columns, i.e., the pattern may start and end anywhere in the text.
+	 * @return the distance at the last row.
+	 */
+	private static int run(String pattern, String text, boolean global) {
+		final int m = pattern.length();
+		final int n = text.length();
+		final PatternMasks masks = new PatternMasks(pattern);
+		final int blocks = masks.blocks;
+		final long[] pv = new long[blocks]; //the positive vertical deltas
+		final long[] mv = new long[blocks]; //the negative vertical deltas
+		Arrays.fill(pv, -1L); //the first column is 0, 1, 2...
+		final long lastRow = 1L << ((m - 1) & 63);
+		int score = m;
+		int minScore = m;
+
+		for (int j = 0; j < n; ++j) {
+			final int eqOffset = masks.offset(text.charAt(j));
+			int hin = (global ? 1 : 0);
+			for (int b = 0; b < blocks; ++b) {
+				final long pvb = pv[b];
+				final long mvb = mv[b];
+				final long hinIsNegative = (hin < 0 ? 1L : 0L);
+				long eq = (eqOffset < 0 ? 0L : masks.masks[eqOffset + b]);
+				final long xv = eq | mvb;
+				eq |= hinIsNegative;
+				final long xh = (((eq & pvb) + pvb) ^ pvb) | eq;
+				long ph = mvb | ~(xh | pvb);
+				long mh = pvb & xh;
+				final int hout;
+				if (b == blocks - 1) {
+					//the last block may have padding rows, the distance is at row m
+					hout = ((ph & lastRow) != 0 ? 1 : ((mh & lastRow) != 0 ? -1 : 0));
+				} else {
+					hout = (int) (ph >>> 63) - (int) (mh >>> 63);
+				}
+				ph = (ph << 1) | (hin > 0 ? 1L : 0L);
+				mh = (mh << 1) | hinIsNegative;
+				pv[b] = mh | ~(xv | ph);
+				mv[b] = ph & xv;
+				hin = hout;
+			}
+			score += hin;
+			if (!global) {
+				minScore = Math.min(minScore, score);
+				if (minScore == 0) {
+					break; //found
+				}
+			}
+		}
+		return (global ? score : minScore);
+	}
+
+	/**
+	 * For each character of a pattern, the bit vector of the positions
+	 * where it occurs, split in blocks. The vectors of the ASCII characters
+	 * come first, indexed by character, then those of the other characters
+	 * of the pattern, in order.
+	 */
+	private static final class PatternMasks {
+		final int blocks;
+		final long[] masks;
+		private final char[] others; //the non-ASCII characters of the pattern, sorted
+
+		PatternMasks(String pattern) {
+			final int m = pattern.length();
+			this.blocks = blocks(m);
+			int othersCount = 0;
+			final char[] others = new char[m];
+			for (int i = 0; i < m; ++i) {
+				final char c = pattern.charAt(i);
+				if (c >= ASCII) {
+					others[othersCount++] = c;
+				}
+			}
+			Arrays.sort(others, 0, othersCount);
+			int distinct = 0;
+			for (int k = 0; k < othersCount; ++k) {
+				if (distinct == 0 || others[distinct - 1] != others[k]) {
+					others[distinct++] = others[k];
+				}
+			}
+			this.others = Arrays.copyOf(others, distinct);
+			this.masks = new long[(ASCII + distinct) * this.blocks];
+			for (int i = 0; i < m; ++i) {
+				this.masks[offset(pattern.charAt(i)) + (i >>> 6)] |= 1L << (i & 63);
+			}
+		}
+
+		/**
+		 * Returns the position in {@link #masks} of the first block 
+		 * of the bit vector of a character.
+		 *
+		 * @param c a {@code char}.
+		 * @return an {@code int}, or {@code -1} if {@code c} does not
+		 *         occur in the pattern.
+		 */
+		int offset(char c) {
+			if (c < ASCII) {
+				return c * this.blocks;
+			}
+			final int k = Arrays.binarySearch(this.others, c);
+			return (k < 0 ? -1 : (ASCII + k) * this.blocks);
+		}
+	}
+}
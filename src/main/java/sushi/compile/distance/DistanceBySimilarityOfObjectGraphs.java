@@ -3,9 +3,9 @@ package sushi.compile.distance;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -17,82 +17,184 @@ public class DistanceBySimilarityOfObjectGraphs {
 
 	private static final Logger logger = new Logger(DistanceBySimilarityOfObjectGraphs.class);
 
-	private static boolean targetIsPartiallySymbolicObject = false;
-	private static HashSet<ObjectField> fieldsToBeConsidered = null;
-	private static boolean considerAliases = true;
+	/*Each thread computes the distances by the static methods 
+	 * on its own context, that is reused across computations*/
+	private static final ThreadLocal<DistanceBySimilarityOfObjectGraphs> contexts = 
+			ThreadLocal.withInitial(DistanceBySimilarityOfObjectGraphs::new);
+
+	/*Caches, for each class, the plan for comparing its objects*/
+	private static final ClassValue<ComparisonPlan> comparisonPlans = new ClassValue<ComparisonPlan>() {
+		@Override
+		protected ComparisonPlan computeValue(Class<?> type) {
+			return new ComparisonPlan(type);
+		}
+	};
+
+	private boolean targetIsPartiallySymbolicObject = false;
+	private HashSet<ObjectField> fieldsToBeConsidered = null;
+	private boolean considerAliases = true;
 
 	/*The two maps below track the visited objects
 	 * and associate each visited object with an Id
 	 * that is equivalent between the paired object
 	 * of target and candidate, respectively*/
-	private static Map<ObjectMapWrapper, String> visitedInTarget = new HashMap<ObjectMapWrapper, String>(); 
-	private static Map<ObjectMapWrapper, String> visitedInCandidate = new HashMap<ObjectMapWrapper, String>();
-
-	private static List<DistancePair> worklist = new LinkedList<DistancePair>();
-	private static boolean converged;
+	private final Map<ObjectMapWrapper, String> visitedInTarget = new HashMap<ObjectMapWrapper, String>(); 
+	private final Map<ObjectMapWrapper, String> visitedInCandidate = new HashMap<ObjectMapWrapper, String>();
+
+	private final PairWorklist worklist = new PairWorklist();
+	private boolean converged;
+	private boolean inUse = false;
+
+	private TraversalBudget budget = TraversalBudget.UNBOUNDED;
+	private long visitedNodes;
+	private long startNanos;
+	private boolean budgetExhausted;
+
+	/**
+	 * Constructor. The object is a context for computing distances that 
+	 * holds the state of the traversal of the object graphs, and reuses 
+	 * it across computations. A context must be used by one thread at a 
+	 * time, distinct contexts can be used by distinct threads in parallel.
+	 */
+	public DistanceBySimilarityOfObjectGraphs() {}
+	
+	private static DistanceBySimilarityOfObjectGraphs context() {
+		final DistanceBySimilarityOfObjectGraphs context = contexts.get();
+		return (context.inUse ? new DistanceBySimilarityOfObjectGraphs() : context); //reentrant calls
+	}
+	
+	/**
+	 * Sets the budget of the computations made on this context. When 
+	 * a computation runs out of budget it stops traversing the object 
+	 * graphs, and returns the similarity of the objects visited so far 
+	 * as not converged, i.e., a distance that is greater than zero.
+	 * 
+	 * @param budget a {@link TraversalBudget}, or {@code null} for no budget.
+	 */
+	public void setBudget(TraversalBudget budget) {
+		this.budget = (budget == null ? TraversalBudget.UNBOUNDED : budget);
+	}
 
-	private DistanceBySimilarityOfObjectGraphs() {}
+	/**
+	 * Checks whether the last computation made on this context
+	 * ran out of budget.
+	 * 
+	 * @return a {@code boolean}.
+	 */
+	public boolean isBudgetExhausted() {
+		return this.budgetExhausted;
+	}
 	
-	private static void initGlobals(HashSet<ObjectField> initializedObjectFields, boolean aliases) {
+	/**
+	 * Checks whether the objects compared by the last computation made
+	 * on this context were found equivalent.
+	 * 
+	 * @return a {@code boolean}, always {@code false} when the computation 
+	 *         ran out of budget.
+	 */
+	public boolean isConverged() {
+		return this.converged;
+	}
+
+	private void init(HashSet<ObjectField> initializedObjectFields, boolean aliases) {
+		this.inUse = true;
+		this.visitedNodes = 0;
+		this.startNanos = System.nanoTime();
+		this.budgetExhausted = false;
+		
 		//setting parameters for the computation 
-		targetIsPartiallySymbolicObject = (initializedObjectFields != null);
-		fieldsToBeConsidered = initializedObjectFields;
-		considerAliases = aliases;		
+		this.targetIsPartiallySymbolicObject = (initializedObjectFields != null);
+		this.fieldsToBeConsidered = initializedObjectFields;
+		this.considerAliases = aliases;		
 		
 		/*The two maps below track the visited objects
 		 * and associate each visited object with an Id
 		 * that is equivalent between the paired object
 		 * of target and candidate, respectively*/
-		visitedInTarget.clear();
-		visitedInCandidate.clear();
+		this.visitedInTarget.clear();
+		this.visitedInCandidate.clear();
 		
-		converged = true; //assume convergence until observing a convergence failure
+		this.converged = true; //assume convergence until observing a convergence failure
+	}
+	
+	private void release() {
+		//does not keep the object graphs reachable
+		this.fieldsToBeConsidered = null;
+		this.visitedInTarget.clear();
+		this.visitedInCandidate.clear();
+		this.worklist.clear();
+		this.inUse = false;
 	}
-
 
 	public static double distance(HashSet<ObjectField> initializedObjectFields, 
 			double knownRefSimilarity, Object... objects) {
-				
-		initGlobals(initializedObjectFields, true);
-		
-		logger.debug("Computing similarity: BEGIN ");
-		double achievedSimilarity = 0.0d;
-		for (int i = 0; i < objects.length - (objects.length % 2); i += 2) {
-			Object oTarget = objects[i];
-			Object oCandidate = objects[i + 1];
+		return context().computeDistance(initializedObjectFields, knownRefSimilarity, objects);
+	}
+
+	/**
+	 * Computes the distance between pairs of objects, on this context.
+	 * 
+	 * @param initializedObjectFields the {@link ObjectField}s of the targets 
+	 *        that must be compared, or {@code null} for comparing all of them. 
+	 * @param knownRefSimilarity unused.
+	 * @param objects the target and candidate objects, alternated.
+	 * @return the same as {@link #distance(HashSet, double, Object...)}.
+	 */
+	public double computeDistance(HashSet<ObjectField> initializedObjectFields, 
+			double knownRefSimilarity, Object... objects) {
+		try {
+			init(initializedObjectFields, true);
 
-			logger.debug("Computing similarity value for " + oCandidate + " wrt " + oTarget);
-			achievedSimilarity += computeSimilarity(oTarget, oCandidate, "obj" + i);
-			logger.debug("Actual similarity is " + achievedSimilarity);
+			logger.debug("Computing similarity: BEGIN ");
+			double achievedSimilarity = 0.0d;
+			for (int i = 0; i < objects.length - (objects.length % 2); i += 2) {
+				Object oTarget = objects[i];
+				Object oCandidate = objects[i + 1];
 
-		}
-		
-		logger.debug("Computing similarity: END: Similarity is " + achievedSimilarity);
+				logger.debug("Computing similarity value for " + oCandidate + " wrt " + oTarget);
+				achievedSimilarity += computeSimilarity(oTarget, oCandidate, "obj" + i);
+				logger.debug("Actual similarity is " + achievedSimilarity);
 
-		double distance = (converged) ? 0.0d : inverseDistanceRatio(achievedSimilarity, 100.00d);
-		logger.debug("Current distance is " + distance);
-		return distance;
+			}
+
+			logger.debug("Computing similarity: END: Similarity is " + achievedSimilarity);
+
+			double distance = (this.converged) ? 0.0d : inverseDistanceRatio(achievedSimilarity, 100.00d);
+			logger.debug("Current distance is " + distance);
+			return distance;
+		} finally {
+			release();
+		}
 	}
 
 	/* kept only for debugging purposes */
 	public static double refSimilarity(HashSet<ObjectField> initializedObjectFields, 
 			boolean aliases, Object... objects) {
-		
-		initGlobals(initializedObjectFields, aliases);
-		
-		logger.debug("Computing ref similarity: BEGIN ");
-		double refSimilarity = 0.0d;
-		for (int i = 0; i < objects.length - (objects.length % 2); i += 2) {
-			Object oTarget = objects[i];
-			
-			logger.debug("Computing ref similarity value for " + oTarget);
-			refSimilarity += computeSimilarity(oTarget, oTarget, "obj" + i); 
-			logger.debug("Ref similarity of " + oTarget + " is " + refSimilarity);
+		return context().computeRefSimilarity(initializedObjectFields, aliases, objects);
+	}
+
+	/* kept only for debugging purposes */
+	public double computeRefSimilarity(HashSet<ObjectField> initializedObjectFields, 
+			boolean aliases, Object... objects) {
+		try {
+			init(initializedObjectFields, aliases);
+
+			logger.debug("Computing ref similarity: BEGIN ");
+			double refSimilarity = 0.0d;
+			for (int i = 0; i < objects.length - (objects.length % 2); i += 2) {
+				Object oTarget = objects[i];
+
+				logger.debug("Computing ref similarity value for " + oTarget);
+				refSimilarity += computeSimilarity(oTarget, oTarget, "obj" + i); 
+				logger.debug("Ref similarity of " + oTarget + " is " + refSimilarity);
+			}
+
+			logger.debug("Computing ref similarity: END: Ref similarity is " + refSimilarity);
+
+			return refSimilarity;
+		} finally {
+			release();
 		}
-		
-		logger.debug("Computing ref similarity: END: Ref similarity is " + refSimilarity);
-		
-		return refSimilarity;
 	}
 	
 	private static final class ObjectMapWrapper {
@@ -120,7 +222,54 @@ public class DistanceBySimilarityOfObjectGraphs {
 		}
 	}
 	
-	private static double computeSimilarity(Object oTarget, Object oCandidate, String rootObjId) {
+	/**
+	 * The fields that must be compared for the objects of a class, i.e., 
+	 * the inherited fields that are neither constant nor excluded by the 
+	 * {@link FieldFilter}, already made accessible. 
+	 */
+	private static final class ComparisonPlan {
+		final Field[] fields;
+		final boolean[] primitive; //whether the field has primitive type
+		final String[] descriptions; //for logging
+		final String[] subElementSuffixes; //appended to the id of the object to get the id of the field
+		
+		ComparisonPlan(Class<?> type) {
+			final List<Field> inheritedFields = ReflectionUtils.getInheritedPrivateFields(type);
+			final List<Field> fields = new ArrayList<Field>(inheritedFields.size());
+			for (Field aField : inheritedFields) {
+				try {
+					aField.setAccessible(true);
+				} catch (Exception e) {
+					logger.error("Error during Similarity calculation", e);
+					continue;
+				}
+				if (ReflectionUtils.isConstant(aField)) {
+					logger.debug(" Skip: " + describe(aField));
+				}
+				else if (FieldFilter.exclude(aField)) {
+					logger.debug(" Exclude: " + describe(aField));
+				}
+				else {
+					fields.add(aField);
+				}
+			}
+			this.fields = fields.toArray(new Field[0]);
+			this.primitive = new boolean[this.fields.length];
+			this.descriptions = new String[this.fields.length];
+			this.subElementSuffixes = new String[this.fields.length];
+			for (int i = 0; i < this.fields.length; i++) {
+				this.primitive[i] = this.fields[i].getType().isPrimitive();
+				this.descriptions[i] = describe(this.fields[i]);
+				this.subElementSuffixes[i] = "." + this.fields[i].getName();
+			}
+		}
+		
+		private static String describe(Field aField) {
+			return Modifier.toString(aField.getModifiers()) + " " + aField.getType() + " " + aField.getName();
+		}
+	}
+	
+	private double computeSimilarity(Object oTarget, Object oCandidate, String rootObjId) {
 		logger.debug("computing similarity value for " + oCandidate + " wrt " + oTarget);
 		
 		double similarity = 0.0d;
@@ -136,9 +285,17 @@ public class DistanceBySimilarityOfObjectGraphs {
 		similarity += handleEdgeToSubElement(oTarget, oCandidate, "<ROOT>." + rootObjId);
 		
 		while (!worklist.isEmpty()) {
-			DistancePair pair = worklist.remove(0);
-			Object objTarget = pair.o1;
-			Object objCandidate = pair.o2;
+			if (budgetExhausted || !budget.allowsVisit(visitedNodes, startNanos)) {
+				logger.debug("Traversal budget exhausted after visiting " + visitedNodes + " nodes");
+				budgetExhausted = true;
+				converged = false;
+				break;
+			}
+			++visitedNodes;
+			
+			Object objTarget = worklist.peekFirst();
+			Object objCandidate = worklist.peekSecond();
+			worklist.removeFirst();
 			
 			assert(visitedInTarget.containsKey(new ObjectMapWrapper(objTarget)));
 			assert(visitedInCandidate.containsKey(new ObjectMapWrapper(objCandidate)));
@@ -147,6 +304,9 @@ public class DistanceBySimilarityOfObjectGraphs {
 			if (objTarget == null || objCandidate == null) {
 				similarity += similarityWithNull(objTarget, objCandidate);
 			}
+			else if (ReflectionUtils.isArray(objTarget) && ReflectionUtils.isPrimitive(objTarget)) {
+				similarity += similarityWithPrimitiveArray(objTarget, objCandidate);
+			}
 			else if (ReflectionUtils.isPrimitive(objTarget)) {
 				similarity += similarityWithPrimitiveObject(objTarget, objCandidate);
 			}
@@ -165,7 +325,7 @@ public class DistanceBySimilarityOfObjectGraphs {
 		return similarity;
 	}
 	
-	private static double similarityWithObject(Object objTarget, Object objCandidate) {
+	private double similarityWithObject(Object objTarget, Object objCandidate) {
 		logger.debug("Handling OBJECT");
 		double similarity = 0.0d;
 		
@@ -187,7 +347,7 @@ public class DistanceBySimilarityOfObjectGraphs {
 			similarity += inverseDistanceExp(packageDistance, 0.5d);
 			if (packageDistance == 0) {
 				logger.debug("same packages: " + objTarget.getClass() + " vs " + objCandidate.getClass());
-				double classNameDistance = StringDistanceFunctions.distanceEditLevenshtein(classNameTarget, classNameCandidate);
+				double classNameDistance = StringDistanceFunctions.distanceEditLevenshtein(classNameTarget, classNameCandidate, MAX_SIGNIFICANT_STRING_DISTANCE);
 				similarity += inverseDistanceExp(classNameDistance, 0.5d);
 			}
 
@@ -202,26 +362,23 @@ public class DistanceBySimilarityOfObjectGraphs {
 		}
 		
 		logger.debug("Looking into fields");
-		List<Field> fields = ReflectionUtils.getInheritedPrivateFields(objTarget.getClass());
-		for (int i = 0; i < fields.size(); i++) {
+		final ComparisonPlan plan = comparisonPlans.get(objTarget.getClass());
+		for (int i = 0; i < plan.fields.length; i++) {
 			try {
-				Field aField = fields.get(i);
-				aField.setAccessible(true);
+				Field aField = plan.fields[i];
 					
-				// skip comparison of constants, excluded by filter, and don't care fields
-				if (ReflectionUtils.isConstant(aField)) {
-					logger.debug(" Skip: " + Modifier.toString(aField.getModifiers()) + " " + aField.getType() + " " + aField.getName());
-				}
-				else if (FieldFilter.exclude(aField)) {
-					logger.debug(" Exclude: " + Modifier.toString(aField.getModifiers()) + " " + aField.getType() + " " + aField.getName());
+				// skip comparison of don't care fields (constants and fields excluded by filter are not in the plan)
+				if (targetIsPartiallySymbolicObject && !fieldsToBeConsidered.contains(new ObjectField(objTarget, aField))) {
+					logger.debug(" Don't care: " + plan.descriptions[i]);
 				}
-				else if (targetIsPartiallySymbolicObject && !fieldsToBeConsidered.contains(new ObjectField(objTarget, aField))) {
-					logger.debug(" Don't care: " + Modifier.toString(aField.getModifiers()) + " " + aField.getType() + " " + aField.getName());
+				else if (plan.primitive[i]) {
+					logger.debug(" field: " + plan.descriptions[i]);
+					similarity += handleEdgeToPrimitive(aField.get(objTarget), aField.get(objCandidate)); 
 				}
 				else {					
-					logger.debug(" field: " + Modifier.toString(aField.getModifiers()) + " " + aField.getType() + " " + aField.getName());
+					logger.debug(" field: " + plan.descriptions[i]);
 					assert (visitedInTarget.containsKey(new ObjectMapWrapper(objTarget)));
-					String subElementId = visitedInTarget.get(new ObjectMapWrapper(objTarget)) + "." + aField.getName();
+					String subElementId = visitedInTarget.get(new ObjectMapWrapper(objTarget)) + plan.subElementSuffixes[i];
 					similarity += handleEdgeToSubElement(aField.get(objTarget), aField.get(objCandidate), subElementId); 
 				}
 
@@ -233,6 +390,11 @@ public class DistanceBySimilarityOfObjectGraphs {
 		return similarity;
 	}
 
+	//inverseDistanceExp(distance, maxValue) is 0.0 for every distance greater than 
+	//this and maxValue <= 1.0 (it is so already from 273), so the edit distances 
+	//of strings need not be computed beyond it
+	private static final int MAX_SIGNIFICANT_STRING_DISTANCE = 300;
+
 	private static double inverseDistanceExp(double distance, double maxValue) {		
 		return maxValue * Math.exp(-0.01d * Math.pow(distance, 2.0d)); 
 	}
@@ -242,7 +404,7 @@ public class DistanceBySimilarityOfObjectGraphs {
 	}
 
 
-	private static double similarityWithArray(Object objTarget, Object objCandidate) {
+	private double similarityWithArray(Object objTarget, Object objCandidate) {
 		logger.debug("Handling array");
 		double similarity = 0.0d;
 		//boolean isPrimitiveType = objTarget.getClass().getComponentType().isPrimitive();
@@ -263,7 +425,7 @@ public class DistanceBySimilarityOfObjectGraphs {
 			logger.debug("Looking into array items");
 			for (int i = 0; i <  lengthCommon; i++) { 
 				if (targetIsPartiallySymbolicObject && 
-						!fieldsToBeConsidered.contains(new ObjectField(objTarget, Integer.toString(i)))) {
+						!fieldsToBeConsidered.contains(new ObjectField(objTarget, i))) {
 					logger.debug("Don't care: at array item [" + i +"]");
 				}
 				else {
@@ -281,14 +443,132 @@ public class DistanceBySimilarityOfObjectGraphs {
 		return similarity;
 	}
 
-	private static double similarityWithString(Object objTarget, Object objCandidate) {
+	/*
+	 * The arrays of primitive values, or of boxed primitive values, are 
+	 * not visited item by item: Their items are compared here without 
+	 * boxing (or unboxing them once), yielding the same similarity as 
+	 * if they were visited. 
+	 */
+	private double similarityWithPrimitiveArray(Object objTarget, Object objCandidate) {
+		logger.debug("Handling primitive array");
+		double similarity = 0.0d;
+		if (!objTarget.getClass().equals(objCandidate.getClass())) {
+			logger.debug("Arrays differently typed: " + objTarget.getClass() + " vs " + objCandidate.getClass());
+			converged = false;
+			return similarity;
+		}
+		
+		//similarity depends on their length distance
+		final int lengthTarget = Array.getLength(objTarget);
+		final int lengthCandidate = Array.getLength(objCandidate);
+		int lengthCommon = Math.min(lengthTarget, lengthCandidate);
+		int lengthDistance = Math.max(lengthTarget, lengthCandidate) - lengthCommon;
+		if (lengthDistance == 0.0d) similarity += 1.0;
+		else {
+			similarity += inverseDistanceExp(lengthDistance, 1.0d);
+			converged = false;
+		}
+		logger.debug("Similarity increases by: " + similarity);
+		
+		logger.debug("Looking into array items");
+		final Class<?> itemType = objTarget.getClass().getComponentType();
+		if (itemType.equals(int.class)) {
+			final int[] arrayTarget = (int[]) objTarget, arrayCandidate = (int[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.intDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else if (itemType.equals(char.class)) {
+			final char[] arrayTarget = (char[]) objTarget, arrayCandidate = (char[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.charDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else if (itemType.equals(short.class)) {
+			final short[] arrayTarget = (short[]) objTarget, arrayCandidate = (short[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.shortDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else if (itemType.equals(long.class)) {
+			final long[] arrayTarget = (long[]) objTarget, arrayCandidate = (long[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.longDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else if (itemType.equals(float.class)) {
+			final float[] arrayTarget = (float[]) objTarget, arrayCandidate = (float[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.floatDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else if (itemType.equals(double.class)) {
+			final double[] arrayTarget = (double[]) objTarget, arrayCandidate = (double[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.doubleDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else if (itemType.equals(boolean.class)) {
+			final boolean[] arrayTarget = (boolean[]) objTarget, arrayCandidate = (boolean[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.booleanDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else if (itemType.equals(byte.class)) {
+			final byte[] arrayTarget = (byte[]) objTarget, arrayCandidate = (byte[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) similarity += similarityWithPrimitiveItem(PrimitiveDistance.byteDistance(arrayTarget[i], arrayCandidate[i]));
+			}
+		}
+		else /* boxed primitive values */ {
+			final Object[] arrayTarget = (Object[]) objTarget, arrayCandidate = (Object[]) objCandidate;
+			for (int i = 0; i < lengthCommon; i++) {
+				if (mustCompareItem(objTarget, i)) {
+					similarity += (considerAliases ? 1.0d : 0.0d); //the edges to primitive values always match
+					if (arrayTarget[i] == null || arrayCandidate[i] == null) {
+						similarity += similarityWithNull(arrayTarget[i], arrayCandidate[i]);
+					}
+					else {
+						similarity += similarityWithPrimitiveObject(arrayTarget[i], arrayCandidate[i]);
+					}
+				}
+			}
+		}
+		logger.debug("With array items: Similarity increases by: " + similarity);
+		return similarity;
+	}
+	
+	private boolean mustCompareItem(Object array, int index) {
+		if (targetIsPartiallySymbolicObject && !fieldsToBeConsidered.contains(new ObjectField(array, index))) {
+			logger.debug("Don't care: at array item [" + index + "]");
+			return false;
+		}
+		return true;
+	}
+	
+	/*
+	 * The similarity of an item of a primitive array, given its distance:
+	 * as if the item were visited, it is the similarity of the edge to the 
+	 * item plus the similarity of the (boxed) primitive values. 
+	 */
+	private double similarityWithPrimitiveItem(double distance) {
+		double similarity = (considerAliases ? 1.0d : 0.0d); //the edges to primitive values always match
+		if (distance == 0.0d) similarity += 1.0d;
+		else {
+			similarity += inverseDistanceRatio(distance, 1.0d);
+			converged = false;
+		}
+		return similarity;
+	}
+
+	private double similarityWithString(Object objTarget, Object objCandidate) {
 		logger.debug("Handling String");
 		double similarity = 0.0d;
 		try {
 			if (targetIsPartiallySymbolicObject && !fieldsToBeConsidered.contains(new ObjectField(objTarget, String.class.getDeclaredField("value")))) {
 				similarity += 1.0d;
 			} else {
-				double distance = StringDistanceFunctions.distanceEditLevenshtein((String) objTarget, (String) objCandidate);
+				double distance = StringDistanceFunctions.distanceEditLevenshtein((String) objTarget, (String) objCandidate, MAX_SIGNIFICANT_STRING_DISTANCE);
 				if (distance == 0.0d) similarity += 1.0d;
 				else {
 					similarity += inverseDistanceExp(distance, 1.0d);
@@ -303,7 +583,7 @@ public class DistanceBySimilarityOfObjectGraphs {
 		return similarity;
 	}
 
-	private static double similarityWithPrimitiveObject(Object objTarget, Object objCandidate) {
+	private double similarityWithPrimitiveObject(Object objTarget, Object objCandidate) {
 		// this definition of primitive contains also
 		// primitive classes (e.g. Integer)
 		logger.debug("Handling primitive objects: " + objTarget + " " +  objCandidate);
@@ -319,7 +599,7 @@ public class DistanceBySimilarityOfObjectGraphs {
 		return similarity;
 	}
 
-	private static double similarityWithNull(Object objTarget, Object objCandidate) {
+	private double similarityWithNull(Object objTarget, Object objCandidate) {
 		logger.debug("Handling null");
 		double similarity = 0.0d;
 		if (objTarget == null) {	
@@ -338,7 +618,7 @@ public class DistanceBySimilarityOfObjectGraphs {
 		return similarity;
 	}
 
-	private static double handleEdgeToSubElement(Object objTarget, Object objCandidate, String subElementId) {
+	private double handleEdgeToSubElement(Object objTarget, Object objCandidate, String subElementId) {
 		
 		double similarity = 0.0d;
 		
@@ -363,19 +643,38 @@ public class DistanceBySimilarityOfObjectGraphs {
 		}
 		if (bothNewObjects) {
 			logger.debug("Adding sub elements to the worklist:" + subElementId);
-			worklist.add(new DistancePair(objTarget, objCandidate));
+			worklist.add(objTarget, objCandidate);
 		}
 		
 		return similarity;
 	}
 
+	/* 
+	 * Same as handleEdgeToSubElement, for the (boxed) values of fields with
+	 * primitive type: their edges always match, and they are never visited.
+	 */
+	private double handleEdgeToPrimitive(Object objTarget, Object objCandidate) {
+		assert (mustIgnoreAliases(objTarget) && mustIgnoreAliases(objCandidate));
+		
+		double similarity = 0.0d;
+		
+		if (considerAliases) {
+			logger.debug("Matching edges");
+			similarity += 1.0d;
+		}
+		
+		worklist.add(objTarget, objCandidate);
+		
+		return similarity;
+	}
+
 	private static boolean mustIgnoreAliases(Object obj) {
 		return 	obj == null || 
 				ReflectionUtils.isPrimitive(obj) ||
 				ReflectionUtils.isString(obj);
 	}
 	
-	private static double similarityWithEdge(Object objTarget, Object objCandidate, String subElementId) {
+	private double similarityWithEdge(Object objTarget, Object objCandidate, String subElementId) {
 		if (!considerAliases) {
 			return 0.0d;
 		}
@@ -5,7 +5,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 
@@ -19,20 +18,84 @@ public class DistanceSBES {
 
 	private static final Logger logger = new Logger(DistanceSBES.class);
 
-	private static final List<DistancePair> worklist = new LinkedList<DistancePair>();
-	private static final Map<Object, Integer> visited = new IdentityHashMap<Object, Integer>();
+	/*Each thread computes the distances by the static method 
+	 * on its own context, that is reused across computations*/
+	private static final ThreadLocal<DistanceSBES> contexts = ThreadLocal.withInitial(DistanceSBES::new);
 
-	private DistanceSBES() {}
+	private final PairWorklist worklist = new PairWorklist();
+	private final Map<Object, Integer> visited = new IdentityHashMap<Object, Integer>();
+	private boolean inUse = false;
+
+	private TraversalBudget budget = TraversalBudget.UNBOUNDED;
+	private long visitedNodes;
+	private long startNanos;
+	private boolean budgetExhausted;
+
+	/**
+	 * Constructor. The object is a context for computing distances that 
+	 * holds the state of the traversal of the object graphs, and reuses 
+	 * it across computations. A context must be used by one thread at a 
+	 * time, distinct contexts can be used by distinct threads in parallel.
+	 */
+	public DistanceSBES() {}
 	
 	public static double distance(HashSet<ObjectField> nullObjectFields, Object... objects) {
-		double retVal = 0;
-		for (int i = 0; i < objects.length - (objects.length % 2); i += 2) {
-			retVal += distance2(nullObjectFields, objects[i], objects[i + 1]);
+		final DistanceSBES context = contexts.get();
+		return (context.inUse ? new DistanceSBES() : context).computeDistance(nullObjectFields, objects); //reentrant calls get a new context
+	}
+	
+	/**
+	 * Computes the distance between pairs of objects, on this context.
+	 * 
+	 * @param nullObjectFields the {@link ObjectField}s of the partial objects
+	 *        whose {@code null} values must be compared. 
+	 * @param objects the partial and complete objects, alternated.
+	 * @return the same as {@link #distance(HashSet, Object...)}.
+	 */
+	public double computeDistance(HashSet<ObjectField> nullObjectFields, Object... objects) {
+		this.inUse = true;
+		this.visitedNodes = 0;
+		this.startNanos = System.nanoTime();
+		this.budgetExhausted = false;
+		try {
+			double retVal = 0;
+			for (int i = 0; i < objects.length - (objects.length % 2); i += 2) {
+				retVal += distance2(nullObjectFields, objects[i], objects[i + 1]);
+			}
+			return retVal;
+		} finally {
+			//does not keep the object graphs reachable
+			this.worklist.clear();
+			this.visited.clear();
+			this.inUse = false;
 		}
-		return retVal;
 	}
 	
-	private static double distance2(HashSet<ObjectField> nullObjectFields, Object oPartial, Object oComplete) {
+	/**
+	 * Sets the budget of the computations made on this context. When 
+	 * a computation runs out of budget it stops traversing the object 
+	 * graphs, and adds to the distance of the pairs of objects visited 
+	 * so far {@link Distance#ARRAY_CELL_FACTOR} for each pair it did 
+	 * not visit, so that it does not report as equivalent objects that 
+	 * it did not compare.
+	 * 
+	 * @param budget a {@link TraversalBudget}, or {@code null} for no budget.
+	 */
+	public void setBudget(TraversalBudget budget) {
+		this.budget = (budget == null ? TraversalBudget.UNBOUNDED : budget);
+	}
+
+	/**
+	 * Checks whether the last computation made on this context
+	 * ran out of budget.
+	 * 
+	 * @return a {@code boolean}.
+	 */
+	public boolean isBudgetExhausted() {
+		return this.budgetExhausted;
+	}
+	
+	private double distance2(HashSet<ObjectField> nullObjectFields, Object oPartial, Object oComplete) {
 		logger.debug("distance between: " + oPartial + " and " + oComplete);
 		if (oPartial == null && oComplete == null) {
 			logger.debug("both null");
@@ -62,16 +125,25 @@ public class DistanceSBES {
 		return calculate(oPartial, oComplete, nullObjectFields);
 	}
 	
-	private static double calculate(Object oPartial, Object oComplete, HashSet<ObjectField> nullObjectFields) {
+	private double calculate(Object oPartial, Object oComplete, HashSet<ObjectField> nullObjectFields) {
 		double distance = 0.0d;
 		double lazyInitDistance = 0.0d;
 		
-		worklist.add(new DistancePair(oPartial, oComplete));
+		worklist.add(oPartial, oComplete);
 
 		while (!worklist.isEmpty()) {
-			DistancePair pair = worklist.remove(0);
-			Object objPartial = pair.o1;
-			Object objComplete = pair.o2;
+			if (budgetExhausted || !budget.allowsVisit(visitedNodes, startNanos)) {
+				logger.debug("Traversal budget exhausted after visiting " + visitedNodes + " nodes");
+				budgetExhausted = true;
+				distance += worklist.size() * Distance.ARRAY_CELL_FACTOR;
+				worklist.clear();
+				break;
+			}
+			++visitedNodes;
+			
+			Object objPartial = worklist.peekFirst();
+			Object objComplete = worklist.peekSecond();
+			worklist.removeFirst();
 			
 			//========================================CORNER CASES========================================
 			//------------------NULL-------------------
@@ -191,7 +263,7 @@ public class DistanceSBES {
 							continue;
 						}
 						
-						worklist.add(new DistancePair(obj1value, obj2value));
+						worklist.add(obj1value, obj2value);
 						break;
 					default:
 						logger.error("Unknown comparison type: " + type);
@@ -212,7 +284,7 @@ public class DistanceSBES {
 		}
 	}
 	
-	private static double handleArray(Object objPartial, Object objComplete) {
+	private double handleArray(Object objPartial, Object objComplete) {
 		double distance = 0.0d;
 		
 		ComparisonType arrayType = getComparisonType(objPartial.getClass().getComponentType(), objPartial.getClass().getComponentType());
@@ -223,7 +295,7 @@ public class DistanceSBES {
 				Object[] fCompleteCast = Object[].class.cast(objComplete);
 				int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 				for (int i = 0; i < length; i++) {
-					worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+					worklist.add(fPartialCast[i], fCompleteCast[i]);
 				}
 				distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 			}
@@ -263,7 +335,7 @@ public class DistanceSBES {
 		return distance;
 	}
 
-	private static double handleArray(Field fPartial, Object objPartial, Field fComplete, Object objComplete) {
+	private double handleArray(Field fPartial, Object objPartial, Field fComplete, Object objComplete) {
 		double distance = 0.0d;
 		
 		ComparisonType arrayType = getComparisonType(fPartial.getType().getComponentType(), fComplete.getType().getComponentType());
@@ -274,7 +346,7 @@ public class DistanceSBES {
 				Object[] fCompleteCast = Object[].class.cast(fComplete.get(objComplete));
 				int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 				for (int i = 0; i < length; i++) {
-					worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+					worklist.add(fPartialCast[i], fCompleteCast[i]);
 				}
 				// trick: if two arrays have different length, but that
 				// difference is not used (that is, it is null), then they are equivalent
@@ -310,7 +382,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}
@@ -320,7 +392,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}
@@ -330,7 +402,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}
@@ -340,7 +412,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}
@@ -350,7 +422,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}
@@ -360,7 +432,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}
@@ -370,7 +442,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}
@@ -380,7 +452,7 @@ public class DistanceSBES {
 					
 					int length = Math.min(Array.getLength(fPartialCast), Array.getLength(fCompleteCast));
 					for (int i = 0; i < length; i++) {
-						worklist.add(new DistancePair(fPartialCast[i], fCompleteCast[i]));
+						worklist.add(fPartialCast[i], fCompleteCast[i]);
 					}
 					distance += (Math.max(Array.getLength(fPartialCast), Array.getLength(fCompleteCast)) - length) * Distance.ARRAY_CELL_FACTOR;
 				}		
@@ -433,13 +505,3 @@ public class DistanceSBES {
 enum ComparisonType {
 	ARRAY, PRIMITIVE, STRING, OBJECT
 }
-
-class DistancePair {
-	Object o1;
-	Object o2;
-
-	public DistancePair(Object o1, Object o2) {
-		this.o1 = o1;
-		this.o2 = o2;
-	}
-}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package sushi.compile.distance;
+
+/**
+ * A FIFO worklist of pairs of objects, e.g., a target and a candidate
+ * object to compare. It is a ring buffer that stores the first and the
+ * second objects of the pairs in two parallel arrays, so that adding
+ * and removing a pair does not allocate. The arrays grow as needed and
+ * are kept by {@link #clear()}, so the worklist can be reused.
+ */
+final class PairWorklist {
+	private static final int INITIAL_CAPACITY = 64; //must be a power of 2
+
+	private Object[] firsts = new Object[INITIAL_CAPACITY];
+	private Object[] seconds = new Object[INITIAL_CAPACITY];
+	private int head = 0; //the position of the first pair
+	private int size = 0;
+
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	int size() {
+		return this.size;
+	}
+
+	void add(Object first, Object second) {
+		if (this.size == this.firsts.length) {
+			grow();
+		}
+		final int tail = (this.head + this.size) & (this.firsts.length - 1);
+		this.firsts[tail] = first;
+		this.seconds[tail] = second;
+		++this.size;
+	}
+
+	/**
+	 * Returns the first object of the pair at the head of the worklist.
+	 *
+	 * @return an {@link Object}.
+	 */
+	Object peekFirst() {
+		assert (this.size > 0);
+		return this.firsts[this.head];
+	}
+
+	/**
+	 * Returns the second object of the pair at the head of the worklist.
+	 *
+	 * @return an {@link Object}.
+	 */
+	Object peekSecond() {
+		assert (this.size > 0);
+		return this.seconds[this.head];
+	}
+
+	/**
+	 * Removes the pair at the head of the worklist.
+	 */
+	void removeFirst() {
+		assert (this.size > 0);
+		this.firsts[this.head] = null;
+		this.seconds[this.head] = null;
+		this.head = (this.head + 1) & (this.firsts.length - 1);
+		--this.size;
+	}
+
+	void clear() {
+		while (this.size > 0) {
+			removeFirst();
+		}
+		this.head = 0;
+	}
+
+	private void grow() {
+		final int capacity = this.firsts.length;
+		final Object[] newFirsts = new Object[capacity * 2];
+		final Object[] newSeconds = new Object[capacity * 2];
+		final int headToEnd = capacity - this.head;
+		System.arraycopy(this.firsts, this.head, newFirsts, 0, headToEnd);
+		System.arraycopy(this.firsts, 0, newFirsts, headToEnd, this.head);
+		System.arraycopy(this.seconds, this.head, newSeconds, 0, headToEnd);
+		System.arraycopy(this.seconds, 0, newSeconds, headToEnd, this.head);
+		this.firsts = newFirsts;
+		this.seconds = newSeconds;
+		this.head = 0;
+	}
+}
@@ -60,7 +60,7 @@ public class PrimitiveDistance {
 			if (clazz.equals(int.class) || clazz.equals(Integer.class)) {
 				if (obj1.getClass().isArray()) {
 					if (clazz.equals(Integer.class)) {
-						distance = intDistance(ArrayUtils.toPrimitive((Integer[]) obj1), ArrayUtils.toPrimitive((Integer[]) obj2));
+						distance = intDistance((Integer[]) obj1, (Integer[]) obj2);
 					}
 					else {
 						distance = intDistance((int[]) obj1, (int[]) obj2);
@@ -86,7 +86,7 @@ public class PrimitiveDistance {
 			else if (clazz.equals(short.class) || clazz.equals(Short.class)) {
 				if (obj1.getClass().isArray()) {
 					if (clazz.equals(Short.class)) {
-						distance = shortDistance(ArrayUtils.toPrimitive((Short[]) obj1), ArrayUtils.toPrimitive((Short[]) obj2));
+						distance = shortDistance((Short[]) obj1, (Short[]) obj2);
 					}
 					else {
 						distance = shortDistance((short[]) obj1, (short[]) obj2);
@@ -99,7 +99,7 @@ public class PrimitiveDistance {
 			else if (clazz.equals(long.class) || clazz.equals(Long.class)) {
 				if (obj1.getClass().isArray()) {
 					if (clazz.equals(Long.class)) {
-						distance = longDistance(ArrayUtils.toPrimitive((Long[]) obj1), ArrayUtils.toPrimitive((Long[]) obj2));
+						distance = longDistance((Long[]) obj1, (Long[]) obj2);
 					}
 					else {
 						distance = longDistance((long[]) obj1, (long[]) obj2);
@@ -112,7 +112,7 @@ public class PrimitiveDistance {
 			else if (clazz.equals(float.class) || clazz.equals(Float.class)) {
 				if (obj1.getClass().isArray()) {
 					if (clazz.equals(Float.class)) {
-						distance = floatDistance(ArrayUtils.toPrimitive((Float[]) obj1), ArrayUtils.toPrimitive((Float[]) obj2));
+						distance = floatDistance((Float[]) obj1, (Float[]) obj2);
 					}
 					else {
 						distance = floatDistance((float[]) obj1, (float[]) obj2);
@@ -125,7 +125,7 @@ public class PrimitiveDistance {
 			else if (clazz.equals(double.class) || clazz.equals(Double.class)) {
 				if (obj1.getClass().isArray()) {
 					if (clazz.equals(Double.class)) {
-						distance = doubleDistance(ArrayUtils.toPrimitive((Double[]) obj1), ArrayUtils.toPrimitive((Double[]) obj2));
+						distance = doubleDistance((Double[]) obj1, (Double[]) obj2);
 					}
 					else {
 						distance = doubleDistance((double[]) obj1, (double[]) obj2);
@@ -138,7 +138,7 @@ public class PrimitiveDistance {
 			else if (clazz.equals(boolean.class) || clazz.equals(Boolean.class)) {
 				if (obj1.getClass().isArray()) {
 					if (clazz.equals(Boolean.class)) {
-						distance = booleanDistance(ArrayUtils.toPrimitive((Boolean[]) obj1), ArrayUtils.toPrimitive((Boolean[]) obj2));
+						distance = booleanDistance((Boolean[]) obj1, (Boolean[]) obj2);
 					}
 					else {
 						distance = booleanDistance((boolean[]) obj1, (boolean[]) obj2);
@@ -151,7 +151,7 @@ public class PrimitiveDistance {
 			else if (clazz.equals(byte.class) || clazz.equals(Byte.class)) {
 				if (obj1.getClass().isArray()) {
 					if (clazz.equals(Byte.class)) {
-						distance = byteDistance(ArrayUtils.toPrimitive((Byte[]) obj1), ArrayUtils.toPrimitive((Byte[]) obj2));
+						distance = byteDistance((Byte[]) obj1, (Byte[]) obj2);
 					}
 					else {
 						distance = byteDistance((byte[]) obj1, (byte[]) obj2);
@@ -168,46 +168,79 @@ public class PrimitiveDistance {
 		return distance;
 	}
 	
-	private static double intDistance(int a, int b) {
+	static double intDistance(int a, int b) {
 		return Math.abs(a - b);
 	}
 	
+	/*
+	 * The arrays of boxed values are scanned in place, unboxing
+	 * their items one at a time, rather than copied to arrays of 
+	 * primitive values.
+	 */
+	
 	private static double intDistance(int[] a, int[] b) {
+		final int n = Math.min(a.length, b.length);
 		double distance = 0;
-		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+		for (int i = 0; i < n; i++) {
 			distance += intDistance(a[i], b[i]);
 		}
-		distance += Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
-		return distance;
+		return distance + lengthDistance(a.length, b.length);
+	}
+	
+	private static double intDistance(Integer[] a, Integer[] b) {
+		final int n = Math.min(a.length, b.length);
+		double distance = 0;
+		for (int i = 0; i < n; i++) {
+			distance += intDistance(a[i].intValue(), b[i].intValue());
+		}
+		return distance + lengthDistance(a.length, b.length);
 	}
 
-	private static double shortDistance(short a, short b) {
+	static double shortDistance(short a, short b) {
 		return Math.abs(a - b);
 	}
 	
 	private static double shortDistance(short[] a, short[] b) {
+		final int n = Math.min(a.length, b.length);
 		double distance = 0;
-		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+		for (int i = 0; i < n; i++) {
 			distance += shortDistance(a[i], b[i]);
 		}
-		distance += Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
-		return distance;
+		return distance + lengthDistance(a.length, b.length);
+	}
+	
+	private static double shortDistance(Short[] a, Short[] b) {
+		final int n = Math.min(a.length, b.length);
+		double distance = 0;
+		for (int i = 0; i < n; i++) {
+			distance += shortDistance(a[i].shortValue(), b[i].shortValue());
+		}
+		return distance + lengthDistance(a.length, b.length);
 	}
 
-	private static double longDistance(long a, long b) {
+	static double longDistance(long a, long b) {
 		return Math.abs(a - b);
 	}
 	
 	private static double longDistance(long[] a, long[] b) {
+		final int n = Math.min(a.length, b.length);
 		double distance = 0;
-		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+		for (int i = 0; i < n; i++) {
 			distance += longDistance(a[i], b[i]);
 		}
-		distance += Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
-		return distance;
+		return distance + lengthDistance(a.length, b.length);
+	}
+	
+	private static double longDistance(Long[] a, Long[] b) {
+		final int n = Math.min(a.length, b.length);
+		double distance = 0;
+		for (int i = 0; i < n; i++) {
+			distance += longDistance(a[i].longValue(), b[i].longValue());
+		}
+		return distance + lengthDistance(a.length, b.length);
 	}
 
-	private static double floatDistance(float a, float b) {
+	static double floatDistance(float a, float b) {
 		if (Float.isNaN(a) && Float.isNaN(b)) { 
 			return 0;
 		}
@@ -224,15 +257,24 @@ public class PrimitiveDistance {
 	}
 
 	private static double floatDistance(float[] a, float[] b) {
+		final int n = Math.min(a.length, b.length);
 		double distance = 0;
-		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+		for (int i = 0; i < n; i++) {
 			distance += floatDistance(a[i], b[i]);
 		}
-		distance += Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
-		return distance;
+		return distance + lengthDistance(a.length, b.length);
+	}
+
+	private static double floatDistance(Float[] a, Float[] b) {
+		final int n = Math.min(a.length, b.length);
+		double distance = 0;
+		for (int i = 0; i < n; i++) {
+			distance += floatDistance(a[i].floatValue(), b[i].floatValue());
+		}
+		return distance + lengthDistance(a.length, b.length);
 	}
 	
-	private static double doubleDistance(double a, double b) {
+	static double doubleDistance(double a, double b) {
 		if (Double.isNaN(a) && Double.isNaN(b)) { 
 			return 0;
 		}
@@ -249,31 +291,47 @@ public class PrimitiveDistance {
 	}
 	
 	private static double doubleDistance(double[] a, double[] b) {
+		final int n = Math.min(a.length, b.length);
 		double distance = 0;
-		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+		for (int i = 0; i < n; i++) {
 			distance += doubleDistance(a[i], b[i]);
 		}
-		distance += Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
-		return distance;
+		return distance + lengthDistance(a.length, b.length);
+	}
+	
+	private static double doubleDistance(Double[] a, Double[] b) {
+		final int n = Math.min(a.length, b.length);
+		double distance = 0;
+		for (int i = 0; i < n; i++) {
+			distance += doubleDistance(a[i].doubleValue(), b[i].doubleValue());
+		}
+		return distance + lengthDistance(a.length, b.length);
 	}
 	
-	private static double byteDistance(byte a, byte b) {
+	static double byteDistance(byte a, byte b) {
 		return Math.abs(a - b);
 	}
 	
 	private static double byteDistance(byte[] a, byte[] b) {
+		final int n = Math.min(a.length, b.length);
 		double distance = 0;
-		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+		for (int i = 0; i < n; i++) {
 			distance += byteDistance(a[i], b[i]);
 		}
-		distance += Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
-		return distance;
+		return distance + lengthDistance(a.length, b.length);
 	}
 	
-	private static double charDistance(char a, char b) {
-		String stringF1 = new String(new char[] { a });
-		String stringF2 = new String(new char[] { b });
-		return StringDistanceFunctions.distanceEditLevenshtein(stringF1, stringF2);
+	private static double byteDistance(Byte[] a, Byte[] b) {
+		final int n = Math.min(a.length, b.length);
+		double distance = 0;
+		for (int i = 0; i < n; i++) {
+			distance += byteDistance(a[i].byteValue(), b[i].byteValue());
+		}
+		return distance + lengthDistance(a.length, b.length);
+	}
+	
+	static double charDistance(char a, char b) {
+		return a == b ? 0 : 1; //the edit distance of the one-character strings
 	}
 	
 	private static double charDistance(char[] a, char[] b) {
@@ -282,17 +340,30 @@ public class PrimitiveDistance {
 		return StringDistanceFunctions.distanceEditLevenshtein(stringF1, stringF2);
 	}
 
-	private static double booleanDistance(boolean a, boolean b) {
+	static double booleanDistance(boolean a, boolean b) {
 		return a ^ b ? 1 : 0;
 	}
 	
 	private static double booleanDistance(boolean[] a, boolean[] b) {
+		final int n = Math.min(a.length, b.length);
 		double distance = 0;
-		for (int i = 0; i < Math.min(a.length, b.length); i++) {
+		for (int i = 0; i < n; i++) {
 			distance += booleanDistance(a[i], b[i]);
 		}
-		distance += Math.abs(a.length - b.length) * Distance.ARRAY_CELL_FACTOR;
-		return distance;
+		return distance + lengthDistance(a.length, b.length);
+	}
+	
+	private static double booleanDistance(Boolean[] a, Boolean[] b) {
+		final int n = Math.min(a.length, b.length);
+		double distance = 0;
+		for (int i = 0; i < n; i++) {
+			distance += booleanDistance(a[i].booleanValue(), b[i].booleanValue());
+		}
+		return distance + lengthDistance(a.length, b.length);
+	}
+	
+	private static double lengthDistance(int lengthA, int lengthB) {
+		return Math.abs(lengthA - lengthB) * Distance.ARRAY_CELL_FACTOR;
 	}
 
 }
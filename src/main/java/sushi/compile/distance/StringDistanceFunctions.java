@@ -13,7 +13,8 @@ public interface StringDistanceFunctions {
          * so allows us to retain the previous cost counts as required by the
          * algorithm (taking the minimum of the cost count to the left, up one,
          * and diagonally up and to the left of the current cost count being
-         * calculated).
+         * calculated). When the matrix is not small the bit-parallel algorithm 
+         * of Myers is used instead, see BitParallelEditDistance.
          */
         int sLength = (s == null) ? 0 : s.length();
         int tLength = (t == null) ? 0 : t.length();
@@ -22,6 +23,8 @@ public interface StringDistanceFunctions {
             return tLength;
         } else if (tLength == 0) {
             return sLength;
+        } else if ((long) sLength * tLength >= BitParallelEditDistance.MIN_CELLS) {
+            return BitParallelEditDistance.distance(s, t);
         }
 
         int[] previousCost = new int[sLength + 1]; // 'previous' cost array, horizontally
@@ -53,6 +56,87 @@ public interface StringDistanceFunctions {
         return result;
     }
 
+    /**
+     * Computes the edit distance of two strings, as {@link #distanceEditLevenshtein(String, String)},
+     * up to a maximum. Only the cells of the dynamic programming matrix within
+     * {@code maxDistance} of its diagonal are computed (Ukkonen), and the 
+     * computation stops as soon as the distance exceeds {@code maxDistance}.
+     * 
+     * @param s a {@link String}.
+     * @param t a {@link String}.
+     * @param maxDistance a nonnegative {@code int}.
+     * @return the edit distance of {@code s} and {@code t} if it is at most 
+     *         {@code maxDistance}, otherwise {@code maxDistance + 1}.
+     * @throws IllegalArgumentException if {@code maxDistance < 0}.
+     */
+    static int distanceEditLevenshtein(final String s, final String t, final int maxDistance) {
+        if (maxDistance < 0) {
+            throw new IllegalArgumentException("Maximum edit distance must be nonnegative, but it is " + maxDistance);
+        }
+        int sLength = (s == null) ? 0 : s.length();
+        int tLength = (t == null) ? 0 : t.length();
+
+        if (Math.abs(sLength - tLength) > maxDistance) {
+            return maxDistance + 1;
+        } else if (maxDistance >= Math.max(sLength, tLength)) {
+            return distanceEditLevenshtein(s, t); //the bound does not cut anything
+        } else if (BitParallelEditDistance.blocks(Math.min(sLength, tLength)) * BitParallelEditDistance.CELLS_PER_BLOCK < 2 * maxDistance + 1) {
+            return Math.min(BitParallelEditDistance.distance(s, t), maxDistance + 1); //the band is wider than the bit vectors
+        }
+
+        //from now on maxDistance < max(sLength, tLength), thus the 
+        //costs exceeding it can be saturated to exceeded, no overflow
+        final int exceeded = maxDistance + 1;
+        int[] previousCost = new int[sLength + 1]; // 'previous' cost array, horizontally
+        int[] cost = new int[sLength + 1]; // cost array, horizontally
+
+        for (int i = 0; i < sLength + 1; ++i) {
+            previousCost[i] = Math.min(i, exceeded);
+        }
+
+        for (int j = 0; j < tLength; ++j) {
+            final char t_j = t.charAt(j); // jth character of t
+
+            // the band of the cells within maxDistance of the diagonal;
+            // the cells just out of it are set to exceeded
+            final int from = Math.max(1, j + 1 - maxDistance);
+            final int to = Math.min(sLength, j + 1 + maxDistance);
+            cost[from - 1] = (from == 1 ? Math.min(j + 1, exceeded) : exceeded);
+            int minCost = cost[from - 1];
+            for (int i = from; i <= to; ++i) {
+                final int singleCost = s.charAt(i - 1) == (t_j) ? 0 : 1;
+                // minimum of cell to the left+1, to the top+1, diagonally left and up + cost
+                final int c = Math.min(Math.min(cost[i - 1] + 1, previousCost[i] + 1), previousCost[i - 1] + singleCost);
+                cost[i] = Math.min(c, exceeded);
+                minCost = Math.min(minCost, cost[i]);
+            }
+            if (to < sLength) {
+                cost[to + 1] = exceeded;
+            }
+            if (minCost == exceeded) {
+                return exceeded; //the costs never decrease along the rows
+            }
+
+            // copy current distance counts to 'previous row' distance counts
+            final int[] _temp = previousCost;
+            previousCost = cost;
+            cost = _temp;
+        }
+
+        return previousCost[sLength];
+    }
+
+    /**
+     * Computes how far a string is from containing another one, i.e., 
+     * the minimum edit distance of the latter from the substrings of the 
+     * former. If the former is not longer than the latter it is just their 
+     * edit distance.
+     * 
+     * @param superstring a {@link String}.
+     * @param substring a {@link String}.
+     * @return an {@code int}, {@code 0} iff {@code superstring} contains 
+     *         {@code substring}.
+     */
     static int distanceContainment(final String superstring, final String substring) {
         int superLength = (superstring == null) ? 0 : superstring.length();
         int subLength = (substring == null) ? 0 : substring.length();
@@ -61,37 +145,39 @@ public interface StringDistanceFunctions {
             return distanceEditLevenshtein(superstring, substring);
         } else if (subLength == 0) {
             return 0; //an empty string is a substring of any string
+        } else if ((long) superLength * subLength >= BitParallelEditDistance.MIN_CELLS) {
+            return BitParallelEditDistance.distanceContainment(superstring, substring);
         }
 
-        final int[][] previousCost = new int[superLength - subLength + 1][superLength + 1]; // 'previous' cost arrays, horizontally
-        final int[][] cost = new int[superLength - subLength + 1][superLength + 1]; // cost arrays, horizontally
+        /*
+         * Sellers' algorithm: As in distanceEditLevenshtein, but the cost arrays 
+         * run along the substring, and the first cost of each array is 0 rather 
+         * than j + 1, since the substring may start anywhere in the superstring.
+         * The result is the minimum of the last costs, since it may end anywhere.
+         */
+        int[] previousCost = new int[subLength + 1]; // 'previous' cost array, vertically
+        int[] cost = new int[subLength + 1]; // cost array, vertically
 
-        for (int k = 0; k < superLength - subLength + 1; ++k) {
-            for (int i = 0; i < superLength + 1; ++i) {
-                previousCost[k][i] = i - k;
-            }
+        for (int i = 0; i < subLength + 1; ++i) {
+            previousCost[i] = i;
         }
 
-        for (int j = 0; j < subLength; ++j) {
-            final char substring_j = substring.charAt(j); // jth character of substring
-            for (int k = 0; k < superLength - subLength + 1; ++k) {
-                cost[k][k] = j + 1;
-                for (int i = k; i < k + subLength; i++) {
-                    final int singleCost = (superstring.charAt(i) == substring_j) ? 0 : 1;
-                    // minimum of cell to the left+1, to the top+1, diagonally left and up + cost
-                    cost[k][i + 1] = Math.min(Math.min(cost[k][i] + 1, previousCost[k][i + 1] + 1), previousCost[k][i] + singleCost);
-                }
-                final int[] _temp = previousCost[k];
-                previousCost[k] = cost[k];
-                cost[k] = _temp;
+        int result = subLength;
+        for (int j = 0; j < superLength && result > 0; ++j) {
+            final char superstring_j = superstring.charAt(j); // jth character of superstring
+
+            cost[0] = 0;
+            for (int i = 0; i < subLength; i++) {
+                final int singleCost = (substring.charAt(i) == superstring_j) ? 0 : 1;
+                // minimum of cell above+1, to the left+1, diagonally left and up + cost
+                cost[i + 1] = Math.min(Math.min(cost[i] + 1, previousCost[i + 1] + 1), previousCost[i] + singleCost);
             }
-        }
+            result = Math.min(result, cost[subLength]);
 
-        // our last action in the above loop was to switch d and p, so p now
-        // actually has the most recent cost counts
-        int result = Integer.MAX_VALUE;
-        for (int k = 0; k < superLength - subLength + 1; ++k) {
-            result = Math.min(result, previousCost[k][k + subLength]);
+            // copy current distance counts to 'previous column' distance counts
+            final int[] _temp = previousCost;
+            previousCost = cost;
+            cost = _temp;
         }
 
         return result;
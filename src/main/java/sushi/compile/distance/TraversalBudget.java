@@ -0,0 +1,66 @@
+package sushi.compile.distance;
+
+/**
+ * A bound on the traversal of the object graphs made by a distance
+ * computation: the maximum number of pairs of objects it visits, and
+ * the maximum time it takes. When the budget runs out the computation
+ * stops and returns what it has computed so far.
+ *
+ * @see DistanceBySimilarityOfObjectGraphs#setBudget(TraversalBudget)
+ * @see DistanceSBES#setBudget(TraversalBudget)
+ */
+public final class TraversalBudget {
+	/** No bound. */
+	public static final TraversalBudget UNBOUNDED = new TraversalBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+	//the deadline is checked once every this many visits
+	private static final int DEADLINE_CHECK_MASK = 63;
+
+	private final long maxVisitedNodes;
+	private final long timeoutNanos;
+
+	/**
+	 * Constructor.
+	 *
+	 * @param maxVisitedNodes a positive {@code long}, the maximum number of
+	 *        pairs of objects visited; {@link Long#MAX_VALUE} for no bound.
+	 * @param timeoutNanos a positive {@code long}, the maximum duration of the
+	 *        computation in nanoseconds; {@link Long#MAX_VALUE} for no bound.
+	 * @throws IllegalArgumentException if {@code maxVisitedNodes} or
+	 *         {@code timeoutNanos} is not positive.
+	 */
+	public TraversalBudget(long maxVisitedNodes, long timeoutNanos) {
+		if (maxVisitedNodes <= 0 || timeoutNanos <= 0) {
+			throw new IllegalArgumentException("Traversal budget must be positive");
+		}
+		this.maxVisitedNodes = maxVisitedNodes;
+		this.timeoutNanos = timeoutNanos;
+	}
+
+	public long getMaxVisitedNodes() {
+		return this.maxVisitedNodes;
+	}
+
+	public long getTimeoutNanos() {
+		return this.timeoutNanos;
+	}
+
+	/**
+	 * Checks whether a computation can visit one more pair of objects.
+	 *
+	 * @param visitedNodes the number of pairs the computation visited so far.
+	 * @param startNanos the value of {@link System#nanoTime()} when the
+	 *        computation started.
+	 * @return {@code false} iff the budget ran out.
+	 */
+	boolean allowsVisit(long visitedNodes, long startNanos) {
+		if (visitedNodes >= this.maxVisitedNodes) {
+			return false;
+		}
+		if (this.timeoutNanos != Long.MAX_VALUE && (visitedNodes & DEADLINE_CHECK_MASK) == 0 &&
+		    System.nanoTime() - startNanos > this.timeoutNanos) {
+			return false;
+		}
+		return true;
+	}
+}
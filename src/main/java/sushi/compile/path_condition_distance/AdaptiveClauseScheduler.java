@@ -0,0 +1,226 @@
+package sushi.compile.path_condition_distance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Decides the order in which the clauses of a path condition are evaluated
+ * by {@link DistanceBySimilarityWithPathCondition#distance(AdaptiveClauseScheduler, java.util.Map, java.util.Map, ClassLoader, SushiLibCache, double)}.
+ * It records how much time each clause takes and how much similarity it
+ * loses on average, and periodically reorders the clauses so that the cheap
+ * clauses that often fail are evaluated first, which makes the distance
+ * computation with a cutoff stop earlier for bad candidates.
+ *
+ * The reordering never changes the similarity of a clause:
+ * <ul>
+ * <li>two clauses such that one reads an origin that is a prefix of an
+ * origin read by the other (and that thus may depend one on the other
+ * through the invalid field paths of the {@link CandidateBackbone}) are
+ * kept in their order;</li>
+ * <li>a clause whose similarity depends on the order of visit of the origins
+ * is evaluated after all the clauses that precede it;</li>
+ * <li>a clause whose origins are unknown, or contain method invocations
+ * or array accesses with a symbolic index, is kept in its order with
+ * respect to all the other clauses.</li>
+ * </ul>
+ *
+ * A scheduler is specific to a path condition and is not thread-safe.
+ */
+public class AdaptiveClauseScheduler {
+    private static final int RESCHEDULE_INTERVAL = 64;
+
+    private final List<ClauseSimilarityHandler> pathConditionSimilarityHandlers;
+    private final int[][] successors;
+    private final int[] predecessorsCount;
+    private final long[] evaluations;
+    private final double[] totalCost;
+    private final double[] totalLoss;
+    private final double[] similarities;
+    private int[] schedule;
+    private int evaluationsSinceReschedule = 0;
+
+    public AdaptiveClauseScheduler(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers) {
+        if (pathConditionSimilarityHandlers == null) {
+            throw new SimilarityComputationException("Path condition cannot be null");
+        }
+        this.pathConditionSimilarityHandlers = new ArrayList<>(pathConditionSimilarityHandlers);
+        final int size = this.pathConditionSimilarityHandlers.size();
+        this.evaluations = new long[size];
+        this.totalCost = new double[size];
+        this.totalLoss = new double[size];
+        this.similarities = new double[size];
+        this.schedule = new int[size];
+        for (int i = 0; i < size; ++i) {
+            this.schedule[i] = i; //initially the path condition order
+        }
+
+        //builds the precedence constraints
+        final List<Collection<String>> origins = new ArrayList<>();
+        final List<Set<String>> dependedOrigins = new ArrayList<>();
+        final boolean[] dependsOnVisitOrder = new boolean[size];
+        for (int i = 0; i < size; ++i) {
+            final ClauseSimilarityHandler handler = this.pathConditionSimilarityHandlers.get(i);
+            origins.add(handler.getOrigins());
+            dependedOrigins.add(dependedOrigins(handler.getOrigins()));
+            dependsOnVisitOrder[i] = (handler instanceof SimilarityWithRef && ((SimilarityWithRef) handler).dependsOnVisitOrder());
+        }
+        final List<List<Integer>> successorsLists = new ArrayList<>();
+        this.predecessorsCount = new int[size];
+        for (int i = 0; i < size; ++i) {
+            final List<Integer> successorsList = new ArrayList<>();
+            for (int j = i + 1; j < size; ++j) {
+                if (dependsOnVisitOrder[j] || related(origins.get(i), dependedOrigins.get(i), origins.get(j), dependedOrigins.get(j))) {
+                    successorsList.add(j);
+                    ++this.predecessorsCount[j];
+                }
+            }
+            successorsLists.add(successorsList);
+        }
+        this.successors = new int[size][];
+        for (int i = 0; i < size; ++i) {
+            final List<Integer> successorsList = successorsLists.get(i);
+            this.successors[i] = new int[successorsList.size()];
+            for (int k = 0; k < successorsList.size(); ++k) {
+                this.successors[i][k] = successorsList.get(k);
+            }
+        }
+    }
+
+    /**
+     * Returns the origins some origins depend on.
+     *
+     * @param origins a {@link Collection}{@code <}{@link String}{@code >}, possibly {@code null}.
+     * @return the {@link Set} of all the prefixes of {@code origins}, or {@code null}
+     *         if {@code origins} is {@code null} or the evaluation of some of the origins
+     *         reads other origins.
+     */
+    private static Set<String> dependedOrigins(Collection<String> origins) {
+        if (origins == null) {
+            return null;
+        }
+        final Set<String> retVal = new HashSet<>();
+        for (String origin : origins) {
+            final ParsedOrigin parsedOrigin;
+            try {
+                parsedOrigin = new ParsedOrigin(origin);
+            } catch (SimilarityComputationException e) {
+                return null;
+            }
+            if (parsedOrigin.readsOtherOrigins()) {
+                return null;
+            }
+            retVal.addAll(parsedOrigin.getDependedOrigins());
+        }
+        return retVal;
+    }
+
+    private static boolean related(Collection<String> origins1, Set<String> dependedOrigins1, Collection<String> origins2, Set<String> dependedOrigins2) {
+        if (dependedOrigins1 == null || dependedOrigins2 == null) {
+            return true; //opaque clause
+        }
+        for (String origin : origins1) {
+            if (dependedOrigins2.contains(origin)) {
+                return true;
+            }
+        }
+        for (String origin : origins2) {
+            if (dependedOrigins1.contains(origin)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    List<ClauseSimilarityHandler> getPathConditionSimilarityHandlers() {
+        return this.pathConditionSimilarityHandlers;
+    }
+
+    /**
+     * Returns the order in which the clauses must be evaluated.
+     *
+     * @return an {@code int[]}, a permutation of the positions of
+     *         the clauses in the path condition. It must not be modified.
+     */
+    int[] getSchedule() {
+        return this.schedule;
+    }
+
+    /**
+     * Records the evaluation of a clause.
+     *
+     * @param clause the position of the clause in the path condition.
+     * @param cost the time spent evaluating it, in nanoseconds.
+     * @param similarity the similarity it yielded.
+     */
+    void record(int clause, long cost, double similarity) {
+        ++this.evaluations[clause];
+        this.totalCost[clause] += cost;
+        this.totalLoss[clause] += 1.0d - similarity;
+        this.similarities[clause] = similarity;
+    }
+
+    /**
+     * Returns the similarities recorded by the last evaluation.
+     *
+     * @return a {@code double[]} whose i-th element is the last similarity
+     *         recorded for the i-th clause of the path condition.
+     */
+    double[] getSimilarities() {
+        return this.similarities;
+    }
+
+    /**
+     * Signals that the evaluation of a candidate is completed, possibly
+     * rescheduling the clauses.
+     */
+    void endEvaluation() {
+        ++this.evaluationsSinceReschedule;
+        if (this.evaluationsSinceReschedule >= RESCHEDULE_INTERVAL) {
+            reschedule();
+            this.evaluationsSinceReschedule = 0;
+        }
+    }
+
+    private double priority(int clause) {
+        if (this.evaluations[clause] == 0) {
+            return Double.POSITIVE_INFINITY; //never evaluated: better to learn about it
+        }
+        return this.totalLoss[clause] / Math.max(this.totalCost[clause], 1.0d);
+    }
+
+    private void reschedule() {
+        final int size = this.schedule.length;
+        final double[] priorities = new double[size];
+        for (int i = 0; i < size; ++i) {
+            priorities[i] = priority(i);
+        }
+        final int[] predecessorsCount = this.predecessorsCount.clone();
+        final PriorityQueue<Integer> ready = new PriorityQueue<>(Math.max(size, 1), (i, j) -> {
+            final int byPriority = Double.compare(priorities[j], priorities[i]);
+            return (byPriority == 0 ? Integer.compare(i, j) : byPriority);
+        });
+        for (int i = 0; i < size; ++i) {
+            if (predecessorsCount[i] == 0) {
+                ready.add(i);
+            }
+        }
+        final int[] schedule = new int[size];
+        int next = 0;
+        while (!ready.isEmpty()) {
+            final int clause = ready.poll();
+            schedule[next++] = clause;
+            for (int successor : this.successors[clause]) {
+                --predecessorsCount[successor];
+                if (predecessorsCount[successor] == 0) {
+                    ready.add(successor);
+                }
+            }
+        }
+        assert (next == size);
+        this.schedule = schedule;
+    }
+}
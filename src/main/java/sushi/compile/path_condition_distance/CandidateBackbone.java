@@ -1,7 +1,12 @@
 package sushi.compile.path_condition_distance;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -11,10 +16,41 @@ public class CandidateBackbone {
 
 	private final ClassLoader classLoader;
 	
-	// We keep the direct and reverse mapping between visited objects and their origins 
-	private final HashMap<ObjectMapWrapper, String> freshObjects = new HashMap<>(); 
-	private final HashMap<String, Object> visitedOrigins = new HashMap<>(); 
+	// We keep the direct and reverse mapping between visited objects and their origins; 
+	// objects are compared by identity, without wrapping them 
+	private final IdentityHashMap<Object, String> freshObjects = new IdentityHashMap<>(); 
+	
+	// The visited origins and the invalid field paths are indexed by their 
+	// identifiers in the OriginSymbolTable of the cache in use, the visited
+	// origins that it does not number are kept by name; the invalid field 
+	// paths are also kept as strings, and those that have no identifier are 
+	// counted. The backbone never adds origins to a table, and keeps the 
+	// symbols of the identifiers it indexes by, so that they are not reused.
+	private OriginSymbolTable symbols = null; 
+	private final IdMap visitedOrigins = new IdMap(); 
+	private final HashMap<String, Object> visitedOriginsByName = new HashMap<>(); 
+	private final IdMap invalidFieldPathsIds = new IdMap(); 
+	private int unnumberedInvalidFieldPaths = 0; 
 	private final HashSet<String> invalidFieldPaths = new HashSet<>(); 
+	private final Set<String> invalidFieldPathsView = Collections.unmodifiableSet(this.invalidFieldPaths); 
+	
+	// The cache used when the caller provides none
+	private SushiLibCache localCache = null;
+	
+	// The results of the invocations of pure methods; null until the first one
+	private HashMap<ParsedOrigin.MethodInvocation, Object> memoizedInvocations = null;
+	
+	// When the clauses are evaluated out of order, the position in the path 
+	// condition of the clause being evaluated, and for each visited object the 
+	// position of the clause that visited it; otherwise -1 and empty 
+	private int clauseRank = -1;
+	private final IdentityHashMap<Object, Integer> freshObjectsRanks = new IdentityHashMap<>(); 
+	
+	// When recording, the visits and the invalid field paths of the clause 
+	// being evaluated; otherwise null
+	private ArrayList<String> recordedOrigins = null;
+	private ArrayList<Object> recordedObjects = null;
+	private ArrayList<String> recordedInvalidFieldPaths = null;
 	
 	public CandidateBackbone(ClassLoader classLoader) {
 		this.classLoader = classLoader;
@@ -32,7 +68,13 @@ public class CandidateBackbone {
 			_I = new CandidateBackbone(classLoader);
 		} else {
 			_I.invalidFieldPaths.clear(); /* the information on the invalid field paths is specific for each path condition and shall not be reused across path conditions */
+			_I.invalidFieldPathsIds.clear();
+			_I.unnumberedInvalidFieldPaths = 0;
 			_I.freshObjects.clear();
+			_I.freshObjectsRanks.clear();
+			_I.memoizedInvocations = null; /* the memoized invocations are specific for each candidate */
+			_I.clauseRank = -1;
+			_I.bind(null); /* the next path condition may use another cache */
 		}
 		return _I;
 	}
@@ -42,56 +84,252 @@ public class CandidateBackbone {
 		_I = null; // resetting the backbone
 	}
 
+	/**
+	 * Declares that the clauses of the path condition are evaluated out of 
+	 * order, and which one is going to be evaluated next. From now on, the 
+	 * origin of a visited object is the one visited by the clause that comes
+	 * first in the path condition, rather than the first one visited.
+	 * 
+	 * @param rank the position in the path condition of the clause that is 
+	 *        going to be evaluated.
+	 */
+	void setClauseRank(int rank) {
+		this.clauseRank = rank;
+	}
+
 	private void storeInBackboneIfFresh(Object obj, String origin) {
 		// If another origin already exist for a non-null object, this is an alias path
 		// and then it shall not be stored
-		if (obj != null && !this.freshObjects.containsKey(new ObjectMapWrapper(obj))) {
-			this.freshObjects.put(new ObjectMapWrapper(obj), origin);
+		if (obj != null && !this.freshObjects.containsKey(obj)) {
+			this.freshObjects.put(obj, origin);
+			if (this.clauseRank >= 0) {
+				this.freshObjectsRanks.put(obj, this.clauseRank);
+			}
+		} else if (obj != null && this.clauseRank >= 0) {
+			// If the object was visited by a clause that comes later in the path 
+			// condition, in the path condition order this origin comes first
+			final Integer rank = this.freshObjectsRanks.get(obj);
+			if (rank != null && rank > this.clauseRank) {
+				this.freshObjects.put(obj, origin);
+				this.freshObjectsRanks.put(obj, this.clauseRank);
+			}
+		}
+	}
+
+	/**
+	 * Returns the memoized result of the invocation of a pure method.
+	 * 
+	 * @param invocation a {@link ParsedOrigin.MethodInvocation}.
+	 * @return the result memoized by {@link #memoizeInvocation(ParsedOrigin.MethodInvocation, Object)}, 
+	 *         or {@code null} if none was.
+	 */
+	Object getMemoizedInvocation(ParsedOrigin.MethodInvocation invocation) {
+		return (this.memoizedInvocations == null ? null : this.memoizedInvocations.get(invocation));
+	}
+	
+	void memoizeInvocation(ParsedOrigin.MethodInvocation invocation, Object result) {
+		if (this.memoizedInvocations == null) {
+			this.memoizedInvocations = new HashMap<>();
+		}
+		this.memoizedInvocations.put(invocation, result);
+	}
+
+	/**
+	 * Binds this backbone to the identifiers of a table. The visited 
+	 * origins and the invalid field paths are renumbered in the table, 
+	 * and the visited origins that it does not number are kept by name.
+	 * 
+	 * @param table an {@link OriginSymbolTable}, or {@code null} to 
+	 *        keep all the visited origins by name.
+	 */
+	private void bind(OriginSymbolTable table) {
+		if (table == this.symbols) {
+			return;
+		}
+		this.symbols = table;
+		this.visitedOrigins.drainTo(this.visitedOriginsByName);
+		if (table != null) {
+			for (Iterator<Map.Entry<String, Object>> it = this.visitedOriginsByName.entrySet().iterator(); it.hasNext(); ) {
+				final Map.Entry<String, Object> visit = it.next();
+				final OriginSymbolTable.Symbol symbol = table.find(visit.getKey());
+				if (symbol != null) {
+					this.visitedOrigins.put(symbol, visit.getValue());
+					it.remove();
+				}
+			}
+		}
+		this.invalidFieldPathsIds.clear();
+		this.unnumberedInvalidFieldPaths = 0;
+		for (String invalidFieldPath : this.invalidFieldPaths) {
+			numberInvalidFieldPath(invalidFieldPath, find(invalidFieldPath));
+		}
+	}
+	
+	private OriginSymbolTable.Symbol find(String origin) {
+		return (this.symbols == null ? null : this.symbols.find(origin));
+	}
+	
+	private void putVisitedOrigin(OriginSymbolTable.Symbol symbol, String origin, Object obj) {
+		if (symbol != null) {
+			this.visitedOrigins.put(symbol, obj);
+			this.visitedOriginsByName.remove(origin);
+		} else {
+			this.visitedOriginsByName.put(origin, obj);
 		}
 	}
 
 	public boolean isVisitedOrigin(String origin) {
-		return this.visitedOrigins.containsKey(origin);
+		final OriginSymbolTable.Symbol symbol = find(origin);
+		return (symbol != null && this.visitedOrigins.containsKey(symbol.id)) || this.visitedOriginsByName.containsKey(origin);
 	}
 
 	public Object getObjectByOrigin(String origin) {
-		return this.visitedOrigins.get(origin);
+		final OriginSymbolTable.Symbol symbol = find(origin);
+		if (symbol != null && this.visitedOrigins.containsKey(symbol.id)) {
+			return this.visitedOrigins.get(symbol.id);
+		}
+		return this.visitedOriginsByName.get(origin);
 	}
 
 	public String getOrigin(Object obj) {
-		return this.freshObjects.get(new ObjectMapWrapper(obj));
+		return this.freshObjects.get(obj);
 	}
 
 	public void addInvalidFieldPath(String refPath) {
-		this.invalidFieldPaths.add(refPath);
+		addInvalidFieldPath(refPath, find(refPath));
+		if (this.recordedInvalidFieldPaths != null) {
+			this.recordedInvalidFieldPaths.add(refPath);
+		}
+	}
+	
+	private void addInvalidFieldPath(String refPath, OriginSymbolTable.Symbol symbol) {
+		if (this.invalidFieldPaths.add(refPath)) {
+			numberInvalidFieldPath(refPath, symbol);
+		}
+	}
+	
+	private void numberInvalidFieldPath(String refPath, OriginSymbolTable.Symbol symbol) {
+		if (symbol != null) {
+			this.invalidFieldPathsIds.put(symbol, refPath);
+		} else {
+			++this.unnumberedInvalidFieldPaths;
+		}
 	}
 	
+	/**
+	 * Returns the invalid field paths.
+	 * 
+	 * @return a read-only view of the invalid field paths of this backbone, 
+	 *         that reflects the field paths that are added later.
+	 */
 	public Set<String> getInvalidFieldPaths() {
-		return new HashSet<>(this.invalidFieldPaths);
+		return this.invalidFieldPathsView;
 	}
-
-	private static final class ObjectMapWrapper {
-		private Object o;
-		ObjectMapWrapper(Object o) { this.o = o; }
-	
-		@Override
-		public boolean equals(Object obj) {
-			if (obj == null) {
-				return false;
-			}
-			if (this == obj) {
-				return true;
+	
+	/**
+	 * Finds an invalid field path that an origin depends on.
+	 * 
+	 * @param parsedOrigin a {@link ParsedOrigin}.
+	 * @return one of the {@link ParsedOrigin#getDependedOrigins() depended origins} 
+	 *         of {@code parsedOrigin} that is an invalid field path, or {@code null}
+	 *         if there is none.
+	 */
+	String findInvalidDependedOrigin(ParsedOrigin parsedOrigin) {
+		if (this.invalidFieldPaths.isEmpty()) {
+			return null;
+		}
+		final String[] dependedOrigins = parsedOrigin.getDependedOriginsArray();
+		if (parsedOrigin.getSymbols() == this.symbols && this.unnumberedInvalidFieldPaths == 0) {
+			final int[] dependedOriginsIds = parsedOrigin.getDependedOriginsIds();
+			for (int i = 0; i < dependedOriginsIds.length; ++i) {
+				if (this.invalidFieldPathsIds.containsKey(dependedOriginsIds[i])) {
+					return dependedOrigins[i];
+				}
 			}
-			if (!(obj instanceof ObjectMapWrapper)) {
-				return false;
+		} else {
+			for (String dependedOrigin : dependedOrigins) {
+				if (this.invalidFieldPaths.contains(dependedOrigin)) {
+					return dependedOrigin;
+				}
 			}
-			final ObjectMapWrapper omw = (ObjectMapWrapper) obj;
-			return (this.o == omw.o);
 		}
+		return null;
+	}
+
+	/**
+	 * Starts recording the visits and the invalid field paths 
+	 * added to this backbone, i.e., its {@link Footprint}. 
+	 */
+	void startRecording() {
+		this.recordedOrigins = new ArrayList<>();
+		this.recordedObjects = new ArrayList<>();
+		this.recordedInvalidFieldPaths = new ArrayList<>();
+	}
+	
+	/**
+	 * Stops recording.
+	 * 
+	 * @return the {@link Footprint} of everything that was added to 
+	 *         this backbone since the last {@link #startRecording()}.
+	 */
+	Footprint stopRecording() {
+		final Footprint retVal = new Footprint(this.symbols, this.recordedOrigins.toArray(new String[0]), this.recordedObjects.toArray(), 
+		                                       this.recordedInvalidFieldPaths.toArray(new String[0]));
+		this.recordedOrigins = null;
+		this.recordedObjects = null;
+		this.recordedInvalidFieldPaths = null;
+		return retVal;
+	}
 	
-		@Override
-		public int hashCode() {
-			return System.identityHashCode(this.o);
+	/**
+	 * Adds to this backbone a {@link Footprint} recorded on another backbone, 
+	 * as if the visits that produced it were repeated. It is correct only if 
+	 * the objects the visits started from are the same. 
+	 * 
+	 * @param footprint a {@link Footprint}.
+	 */
+	void replay(Footprint footprint) {
+		// the identifiers of the footprint are used only if they are ours
+		final boolean sameSymbols = (footprint.symbols == this.symbols);
+		for (int i = 0; i < footprint.origins.length; ++i) {
+			final OriginSymbolTable.Symbol symbol = (sameSymbols ? footprint.originsSymbols[i] : find(footprint.origins[i]));
+			putVisitedOrigin(symbol, footprint.origins[i], footprint.objects[i]);
+			storeInBackboneIfFresh(footprint.objects[i], footprint.origins[i]);
+		}
+		for (int i = 0; i < footprint.invalidFieldPaths.length; ++i) {
+			final String invalidFieldPath = footprint.invalidFieldPaths[i];
+			final OriginSymbolTable.Symbol symbol = (sameSymbols ? footprint.invalidFieldPathsSymbols[i] : find(invalidFieldPath));
+			addInvalidFieldPath(invalidFieldPath, symbol);
+		}
+	}
+	
+	/**
+	 * The visits, in order, and the invalid field paths added 
+	 * to a backbone while evaluating a clause.
+	 */
+	static final class Footprint {
+		private final OriginSymbolTable symbols;
+		private final String[] origins;
+		private final OriginSymbolTable.Symbol[] originsSymbols;
+		private final Object[] objects;
+		private final String[] invalidFieldPaths;
+		private final OriginSymbolTable.Symbol[] invalidFieldPathsSymbols;
+		
+		private Footprint(OriginSymbolTable symbols, String[] origins, Object[] objects, String[] invalidFieldPaths) {
+			this.symbols = symbols;
+			this.origins = origins;
+			this.originsSymbols = find(symbols, origins);
+			this.objects = objects;
+			this.invalidFieldPaths = invalidFieldPaths;
+			this.invalidFieldPathsSymbols = find(symbols, invalidFieldPaths);
+		}
+		
+		private static OriginSymbolTable.Symbol[] find(OriginSymbolTable symbols, String[] origins) {
+			final OriginSymbolTable.Symbol[] retVal = new OriginSymbolTable.Symbol[origins.length];
+			for (int i = 0; i < origins.length; ++i) {
+				retVal[i] = (symbols == null ? null : symbols.find(origins[i]));
+			}
+			return retVal;
 		}
 	}
 
@@ -100,20 +338,134 @@ public class CandidateBackbone {
 		assert (origin != null); 
 		
 		if (cache == null) {
-			cache = new SushiLibCache(); //no-cache behavior: use a throw-away local cache 
+			//no-cache behavior: use a cache local to this backbone
+			if (this.localCache == null) {
+				this.localCache = new SushiLibCache(); 
+			}
+			cache = this.localCache;
 		}
 		
+		final boolean isFunctionCall = (origin.charAt(0) == '<');
+		final ParsedOrigin parsedOrigin = cache.getParsedOrigin(origin, this.classLoader);
+		bind(cache.getSymbols());
+		assert (parsedOrigin.getSymbols() == this.symbols);
+		final OriginSymbolTable.Symbol symbol = parsedOrigin.getSymbol();
 		Object obj;
 		// for origins that are not function calls, check in the cache of the visited object
-		if (origin.charAt(0) != '<' && isVisitedOrigin(origin)) {
-			obj = getObjectByOrigin(origin);
+		if (!isFunctionCall && this.visitedOrigins.containsKey(symbol.id)) {
+			obj = this.visitedOrigins.get(symbol.id);
+		} else if (!isFunctionCall && this.visitedOriginsByName.containsKey(origin)) {
+			obj = this.visitedOriginsByName.get(origin);
+			putVisitedOrigin(symbol, origin, obj); //from now on by identifier
 		} else {
-			ParsedOrigin parsedOrigin = cache.getParsedOrigin(origin);
 			obj = parsedOrigin.get(candidateObjects, this, constants, cache);
-			this.visitedOrigins.put(origin, obj);			
+			putVisitedOrigin(symbol, origin, obj);
 		}
 		storeInBackboneIfFresh(obj, origin);
+		if (this.recordedOrigins != null) {
+			this.recordedOrigins.add(origin);
+			this.recordedObjects.add(obj);
+		}
 		return obj;
 	}
 	
+	/**
+	 * A map from the identifiers of origins to objects, by open addressing 
+	 * with linear probing, that also keeps the {@link OriginSymbolTable.Symbol}s
+	 * of the identifiers, so that these stay valid. Its size depends on the 
+	 * number of its entries, not on the values of the identifiers.
+	 */
+	private static final class IdMap {
+		private static final int INITIAL_CAPACITY = 16; //must be a power of 2
+		private static final int FREE = -1; //identifiers are nonnegative
+		
+		private int[] keys = newKeys(INITIAL_CAPACITY);
+		private OriginSymbolTable.Symbol[] symbols = new OriginSymbolTable.Symbol[INITIAL_CAPACITY];
+		private Object[] values = new Object[INITIAL_CAPACITY];
+		private int size = 0;
+		
+		private static int[] newKeys(int capacity) {
+			final int[] retVal = new int[capacity];
+			Arrays.fill(retVal, FREE);
+			return retVal;
+		}
+		
+		private int slot(int id) {
+			final int mask = this.keys.length - 1;
+			final int h = id * 0x9E3779B9;
+			int i = (h ^ (h >>> 16)) & mask;
+			while (this.keys[i] != FREE && this.keys[i] != id) {
+				i = (i + 1) & mask;
+			}
+			return i;
+		}
+		
+		boolean containsKey(int id) {
+			return this.keys[slot(id)] == id;
+		}
+		
+		Object get(int id) {
+			final int i = slot(id);
+			return (this.keys[i] == id ? this.values[i] : null);
+		}
+		
+		void put(OriginSymbolTable.Symbol symbol, Object value) {
+			final int id = symbol.id;
+			int i = slot(id);
+			if (this.keys[i] != id) {
+				if (2 * (this.size + 1) > this.keys.length) {
+					grow();
+					i = slot(id);
+				}
+				this.keys[i] = id;
+				++this.size;
+			}
+			this.symbols[i] = symbol;
+			this.values[i] = value;
+		}
+		
+		void clear() {
+			if (this.size > 0) {
+				Arrays.fill(this.keys, FREE);
+				Arrays.fill(this.symbols, null);
+				Arrays.fill(this.values, null);
+				this.size = 0;
+			}
+		}
+		
+		/**
+		 * Moves all the entries to a map from origins to objects.
+		 * 
+		 * @param byOrigin a {@link Map}{@code <}{@link String}{@code , }{@link Object}{@code >}.
+		 */
+		void drainTo(Map<String, Object> byOrigin) {
+			if (this.size == 0) {
+				return;
+			}
+			for (int i = 0; i < this.keys.length; ++i) {
+				if (this.keys[i] != FREE) {
+					byOrigin.put(this.symbols[i].origin, this.values[i]);
+				}
+			}
+			clear();
+		}
+		
+		private void grow() {
+			final int[] oldKeys = this.keys;
+			final OriginSymbolTable.Symbol[] oldSymbols = this.symbols;
+			final Object[] oldValues = this.values;
+			this.keys = newKeys(oldKeys.length * 2);
+			this.symbols = new OriginSymbolTable.Symbol[oldKeys.length * 2];
+			this.values = new Object[oldKeys.length * 2];
+			for (int j = 0; j < oldKeys.length; ++j) {
+				if (oldKeys[j] != FREE) {
+					final int i = slot(oldKeys[j]);
+					this.keys[i] = oldKeys[j];
+					this.symbols[i] = oldSymbols[j];
+					this.values[i] = oldValues[j];
+				}
+			}
+		}
+	}
+	
 }
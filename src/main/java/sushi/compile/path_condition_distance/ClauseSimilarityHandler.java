@@ -1,9 +1,21 @@
 package sushi.compile.path_condition_distance;
 
+import java.util.Collection;
 import java.util.Map;
 
 public interface ClauseSimilarityHandler {
 	
 	double evaluateSimilarity(CandidateBackbone vdata, Map<String, Object> candidateObjects, Map<Long, String> constants, SushiLibCache cache);
 	
+	/**
+	 * Returns the origins that this clause reads when it is evaluated. 
+	 * 
+	 * @return a {@link Collection}{@code <}{@link String}{@code >}, or 
+	 *         {@code null} if they are not known, in which case the clause 
+	 *         is always evaluated in its position in the path condition.
+	 */
+	default Collection<String> getOrigins() {
+		return null;
+	}
+	
 }
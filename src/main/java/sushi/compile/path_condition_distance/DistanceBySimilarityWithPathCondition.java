@@ -3,6 +3,9 @@ package sushi.compile.path_condition_distance;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import sushi.logging.Logger;
 
@@ -14,12 +17,170 @@ public class DistanceBySimilarityWithPathCondition {
     }
 
     public static double distance(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, Map<String, Object> candidateObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+        return distance(pathConditionSimilarityHandlers, candidateObjects, constants, classLoader, cache, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Computes the distance of a candidate from a path condition, stopping 
+     * as soon as it is certain that the distance is greater than a cutoff. 
+     * Since every clause contributes at most 1.0 to the similarity, this 
+     * happens when the similarity lost on the clauses evaluated so far 
+     * exceeds {@code cutoff}.
+     * 
+     * @param cutoff a {@code double}, the distance the caller is interested 
+     *        to beat (e.g., the distance of the best candidate so far). 
+     * @return the distance of the candidate from the path condition if it 
+     *         is less than or equal to {@code cutoff}, otherwise a lower bound 
+     *         of it that is greater than {@code cutoff}.
+     */
+    public static double distance(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, Map<String, Object> candidateObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache, double cutoff) {
+        final CandidateBackbone backbone = CandidateBackbone.makeNewBackbone(classLoader); 
+        return distance(pathConditionSimilarityHandlers, candidateObjects, constants, backbone, cache, cutoff);
+    }
+
+    /**
+     * Computes the distance of a candidate from a path condition, evaluating
+     * the clauses in the order decided by an {@link AdaptiveClauseScheduler}, 
+     * and stopping as soon as it is certain that the distance is greater than 
+     * a cutoff. The scheduler learns from the evaluation, thus it should be 
+     * reused across all the candidates for the same path condition. 
+     * 
+     * @param scheduler the {@link AdaptiveClauseScheduler} of the path condition.
+     * @param cutoff a {@code double}, the distance the caller is interested 
+     *        to beat. 
+     * @return the distance of the candidate from the path condition if it 
+     *         is less than or equal to {@code cutoff}, otherwise a lower bound 
+     *         of it that is greater than {@code cutoff}.
+     * @see #distance(List, Map, Map, ClassLoader, SushiLibCache, double)
+     */
+    public static double distance(AdaptiveClauseScheduler scheduler, Map<String, Object> candidateObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache, double cutoff) {
+        logger.debug("Computing similarity with path condition (adaptive order): ");
+
+        final List<ClauseSimilarityHandler> pathConditionSimilarityHandlers = scheduler.getPathConditionSimilarityHandlers();
+        final CandidateBackbone backbone = CandidateBackbone.makeNewBackbone(classLoader); 
+        final int[] schedule = scheduler.getSchedule();
+        double achievedSimilarity = 0.0d;
+        int evaluatedClauses = 0;
+        for (int clause : schedule) {
+            backbone.setClauseRank(clause);
+            final long start = System.nanoTime();
+            final double similarity = pathConditionSimilarityHandlers.get(clause).evaluateSimilarity(backbone, candidateObjects, constants, cache);
+            scheduler.record(clause, System.nanoTime() - start, similarity);
+            achievedSimilarity += similarity;
+            ++evaluatedClauses;
+            if (evaluatedClauses - achievedSimilarity > cutoff) {
+                scheduler.endEvaluation();
+                logger.debug("Distance from path condition is at least " + (evaluatedClauses - achievedSimilarity) + ", beyond cutoff " + cutoff);
+                return evaluatedClauses - achievedSimilarity;
+            }
+        }
+        scheduler.endEvaluation();
+
+        //sums in the path condition order, so the result does not depend on the schedule
+        final double[] similarities = scheduler.getSimilarities();
+        achievedSimilarity = 0.0d;
+        for (int clause = 0; clause < similarities.length; ++clause) {
+            achievedSimilarity += similarities[clause];
+        }
+
+        logger.debug("Similarity with path condition is " + achievedSimilarity);
+
+        final double goalSimilarity = pathConditionSimilarityHandlers.size();
+        final double distance = goalSimilarity - achievedSimilarity;
+        assert (distance >= 0);
+
+        logger.debug("Distance from path condition is " + distance);
+
+        return distance;
+    }
+
+    /**
+     * Evaluates a candidate against a path condition, recording what is needed 
+     * to later evaluate incrementally the candidates derived from it.
+     * 
+     * @return a {@link PathConditionEvaluation}, whose {@link PathConditionEvaluation#getDistance() distance}
+     *         is the same computed by {@link #distance(List, Map, Map, ClassLoader, SushiLibCache)}.
+     * @see #evaluate(PathConditionEvaluation, Map, Set, Map, ClassLoader, SushiLibCache)
+     */
+    public static PathConditionEvaluation evaluate(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, Map<String, Object> candidateObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+        return PathConditionEvaluation.evaluate(pathConditionSimilarityHandlers, candidateObjects, constants, classLoader, cache);
+    }
+
+    /**
+     * Evaluates a candidate against a path condition, given the evaluation of
+     * another candidate from which it differs only in some roots. Only the 
+     * clauses that read a changed root, or that may depend on such clauses, 
+     * are evaluated; for the others the previous similarity is reused. 
+     * 
+     * @param previous the {@link PathConditionEvaluation} of the other candidate.
+     * @param candidateObjects the candidate, a map from the root origins to the 
+     *        corresponding candidate objects. 
+     * @param changedRoots the roots (keys of {@code candidateObjects}) whose objects 
+     *        differ from those of the other candidate. A root is unchanged only if 
+     *        it is mapped to the very same object as in the other candidate, and 
+     *        no object reachable from it was modified since. If {@code null}, all
+     *        the roots are assumed to be changed.
+     * @param constants the concrete objects referred by the path condition. They 
+     *        must be the same of the other candidate.
+     * @return a {@link PathConditionEvaluation}, whose {@link PathConditionEvaluation#getDistance() distance}
+     *         is the same computed by {@link #distance(List, Map, Map, ClassLoader, SushiLibCache)}.
+     */
+    public static PathConditionEvaluation evaluate(PathConditionEvaluation previous, Map<String, Object> candidateObjects, Set<String> changedRoots, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+        return PathConditionEvaluation.evaluate(previous, candidateObjects, changedRoots, constants, classLoader, cache);
+    }
+
+    /**
+     * Computes the distances of a population of candidates from a path condition
+     * in parallel, on the common {@link ForkJoinPool}.
+     * 
+     * @see #distance(List, List, Map, ClassLoader, SushiLibCache, ForkJoinPool)
+     */
+    public static double[] distance(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, List<Map<String, Object>> candidatesObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+        return distance(pathConditionSimilarityHandlers, candidatesObjects, constants, classLoader, cache, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Computes the distances of a population of candidates from a path condition
+     * in parallel. Each candidate is evaluated on its own {@link CandidateBackbone}, 
+     * all of them share the same origins cache. The handlers and {@code constants} 
+     * are shared as well, thus the handlers must not keep state across evaluations
+     * (the ones in this package do not) and {@code constants} must not be modified
+     * until the method returns. 
+     * 
+     * @param pathConditionSimilarityHandlers the {@link ClauseSimilarityHandler}s of the path condition.
+     * @param candidatesObjects a {@link List} of candidates, each a map from the root 
+     *        origins to the corresponding candidate objects.
+     * @param constants the concrete objects referred by the path condition.
+     * @param classLoader the {@link ClassLoader} of the candidates.
+     * @param cache a concurrent {@link SushiLibCache}, or {@code null} for using 
+     *        a new one for this computation.
+     * @param pool the {@link ForkJoinPool} that evaluates the candidates.
+     * @return a {@code double[]} whose i-th element is the distance of the i-th 
+     *         candidate in {@code candidatesObjects}.
+     * @throws SimilarityComputationException if {@code cache} is not concurrent.
+     */
+    public static double[] distance(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, List<Map<String, Object>> candidatesObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache, ForkJoinPool pool) {
+        final SushiLibCache sharedCache = (cache == null ? new SushiLibCache(OriginAccessBackend.REFLECTION, true) : cache);
+        if (!sharedCache.isConcurrent()) {
+            throw new SimilarityComputationException("Parallel distance computation requires a concurrent cache");
+        }
+        final BatchDistance batch = new BatchDistance(pathConditionSimilarityHandlers, new ArrayList<>(candidatesObjects), constants, classLoader, sharedCache);
+        pool.invoke(batch.new Task(0, batch.distances.length));
+        return batch.distances;
+    }
+
+    private static double distance(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, Map<String, Object> candidateObjects, Map<Long, String> constants, CandidateBackbone backbone, SushiLibCache cache, double cutoff) {
         logger.debug("Computing similarity with path condition: ");
 
-        double achievedSimilarity = 0.0d;		
-        CandidateBackbone backbone = CandidateBackbone.makeNewBackbone(classLoader); 
+        double achievedSimilarity = 0.0d;
+        int evaluatedClauses = 0;
         for (ClauseSimilarityHandler handler : pathConditionSimilarityHandlers) {
             achievedSimilarity += handler.evaluateSimilarity(backbone, candidateObjects, constants, cache);
+            ++evaluatedClauses;
+            if (evaluatedClauses - achievedSimilarity > cutoff) {
+                logger.debug("Distance from path condition is at least " + (evaluatedClauses - achievedSimilarity) + ", beyond cutoff " + cutoff);
+                return evaluatedClauses - achievedSimilarity;
+            }
         }
 
         logger.debug("Similarity with path condition is " + achievedSimilarity);
@@ -33,6 +194,48 @@ public class DistanceBySimilarityWithPathCondition {
         return distance;
     }
     
+    private static final class BatchDistance {
+        private final List<ClauseSimilarityHandler> pathConditionSimilarityHandlers;
+        private final List<Map<String, Object>> candidatesObjects;
+        private final Map<Long, String> constants;
+        private final ClassLoader classLoader;
+        private final SushiLibCache cache;
+        private final double[] distances;
+
+        BatchDistance(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, List<Map<String, Object>> candidatesObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+            this.pathConditionSimilarityHandlers = pathConditionSimilarityHandlers;
+            this.candidatesObjects = candidatesObjects;
+            this.constants = constants;
+            this.classLoader = classLoader;
+            this.cache = cache;
+            this.distances = new double[candidatesObjects.size()];
+        }
+
+        private final class Task extends RecursiveAction {
+            private static final long serialVersionUID = -3207839153458406442L;
+
+            private final int from, to;
+
+            Task(int from, int to) {
+                this.from = from;
+                this.to = to;
+            }
+
+            @Override
+            protected void compute() {
+                if (this.to - this.from > 1) {
+                    final int middle = (this.from + this.to) >>> 1;
+                    invokeAll(new Task(this.from, middle), new Task(middle, this.to));
+                } else if (this.to - this.from == 1) {
+                    final CandidateBackbone backbone = new CandidateBackbone(BatchDistance.this.classLoader);
+                    BatchDistance.this.distances[this.from] = 
+                        distance(BatchDistance.this.pathConditionSimilarityHandlers, BatchDistance.this.candidatesObjects.get(this.from), 
+                                 BatchDistance.this.constants, backbone, BatchDistance.this.cache, Double.POSITIVE_INFINITY);
+                }
+            }
+        }
+    }
+    
     public static void completeFinalHeap(Map<Long, StringCalculator> stringCalculators, Map<String, Object> candidateObjects, Map<Long, String> constants, ClassLoader classLoader) {
         completeFinalHeap(stringCalculators, candidateObjects, constants, classLoader, null);
     }
@@ -0,0 +1,35 @@
+package sushi.compile.path_condition_distance;
+
+/**
+ * The mechanism used by a {@link ParsedOrigin} to read fields 
+ * and invoke methods while walking an origin.
+ */
+public enum OriginAccessBackend {
+    /** 
+     * Core reflection ({@link java.lang.reflect.Field#get(Object)}, 
+     * {@link java.lang.reflect.Method#invoke(Object, Object...)}).
+     */
+    REFLECTION,
+    
+    /** 
+     * Method handles obtained by unreflecting fields and methods. 
+     * Falls back to {@link #REFLECTION} for the fields and methods 
+     * that cannot be unreflected. The handles are kept in the compiled 
+     * origins, not in constants, so the JIT does not inline them into 
+     * the walk of the origin: reading chains of fields is somewhat 
+     * faster than with {@link #REFLECTION}, reading static fields and 
+     * invoking methods is about as fast (see {@code OriginAccessBenchmark}).
+     */
+    METHOD_HANDLES,
+    
+    /**
+     * As {@link #METHOD_HANDLES}, but every run of two or more consecutive 
+     * field reads in an origin (as in {@code {ROOT}:this.list.head.next.value}) 
+     * is fused in a single method handle, so that the run is walked with 
+     * one invocation rather than one per field. As the handles are not 
+     * constants, the run is not inlined into the walk of the origin, but
+     * it is compiled as a whole: a run of four fields is read in about 
+     * half the time it takes with {@link #METHOD_HANDLES}. 
+     */
+    FUSED_METHOD_HANDLES
+}
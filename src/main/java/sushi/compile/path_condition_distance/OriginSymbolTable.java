@@ -0,0 +1,114 @@
+package sushi.compile.path_condition_distance;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps each distinct origin (and each prefix of an origin) to a dense
+ * {@code int} identifier, so that the {@link CandidateBackbone} and
+ * the {@link ParsedOrigin}s can index by the identifiers rather than
+ * by strings. Each {@link SushiLibCache} has its own table, and the
+ * identifiers of different tables are unrelated.
+ *
+ * <p>An identifier is handed out as a {@link Symbol}, and it is valid
+ * as long as its {@link Symbol} is reachable: whoever indexes by an
+ * identifier must keep its {@link Symbol}. The table references the
+ * {@link Symbol}s weakly, so when no {@link ParsedOrigin} (or backbone)
+ * keeps the {@link Symbol} of an origin any longer, e.g., because the
+ * origin was evicted from a bounded cache, the origin is removed from
+ * the table and its identifier is reused. It is thread-safe.
+ */
+final class OriginSymbolTable {
+    /**
+     * An origin and its identifier.
+     */
+    static final class Symbol {
+        final String origin;
+        final int id;
+
+        private Symbol(String origin, int id) {
+            this.origin = origin;
+            this.id = id;
+        }
+    }
+
+    private static final class Entry extends WeakReference<Symbol> {
+        private final String origin;
+        private final int id;
+
+        Entry(Symbol symbol, ReferenceQueue<Symbol> queue) {
+            super(symbol, queue);
+            this.origin = symbol.origin;
+            this.id = symbol.id;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Symbol> collected = new ReferenceQueue<>();
+
+    //guarded by this
+    private int nextId = 0;
+    private int[] freeIds = new int[16];
+    private int freeIdsSize = 0;
+
+    /**
+     * Returns the {@link Symbol} of an origin, assigning an
+     * identifier to the origin if it has none yet.
+     *
+     * @param origin a {@link String}.
+     * @return a {@link Symbol}.
+     */
+    Symbol symbol(String origin) {
+        final Symbol symbol = find(origin);
+        if (symbol != null) {
+            return symbol;
+        }
+        synchronized (this) {
+            expunge();
+            final Symbol found = find(origin);
+            if (found != null) {
+                return found;
+            }
+            final Symbol retVal = new Symbol(origin, (this.freeIdsSize > 0 ? this.freeIds[--this.freeIdsSize] : this.nextId++));
+            this.entries.put(origin, new Entry(retVal, this.collected)); //replaces the entry of a collected symbol, if any
+            return retVal;
+        }
+    }
+
+    /**
+     * Returns the {@link Symbol} of an origin, if it has one.
+     *
+     * @param origin a {@link String}.
+     * @return a {@link Symbol}, or {@code null} if {@code origin}
+     *         has no identifier.
+     */
+    Symbol find(String origin) {
+        final Entry entry = this.entries.get(origin);
+        return (entry == null ? null : entry.get());
+    }
+
+    /**
+     * Returns the number of the origins in this table.
+     *
+     * @return an {@code int}.
+     */
+    synchronized int size() {
+        expunge();
+        return this.entries.size();
+    }
+
+    //must hold the lock
+    private void expunge() {
+        for (Reference<? extends Symbol> ref = this.collected.poll(); ref != null; ref = this.collected.poll()) {
+            final Entry entry = (Entry) ref;
+            this.entries.remove(entry.origin, entry);
+            if (this.freeIdsSize == this.freeIds.length) {
+                this.freeIds = Arrays.copyOf(this.freeIds, this.freeIds.length * 2);
+            }
+            this.freeIds[this.freeIdsSize++] = entry.id;
+        }
+    }
+}
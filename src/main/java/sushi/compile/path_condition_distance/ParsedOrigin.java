@@ -1,15 +1,13 @@
 package sushi.compile.path_condition_distance;
 
 import static sushi.util.ReflectionUtils.method;
-import static sushi.util.TypeUtils.DOUBLE;
-import static sushi.util.TypeUtils.FLOAT;
 import static sushi.util.TypeUtils.INT;
-import static sushi.util.TypeUtils.SHORT;
-import static sushi.util.TypeUtils.BYTE;
-import static sushi.util.TypeUtils.LONG;
 import static sushi.util.TypeUtils.javaClass;
 import static sushi.util.TypeUtils.splitParametersDescriptors;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Array;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
@@ -17,25 +15,62 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import sushi.util.ReflectionUtils;
 
 public class ParsedOrigin {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+    private static final MethodHandle IS_NULL;
+    private static final MethodHandle IS_INSTANCE;
+    private static final MethodHandle NULL_INTERMEDIATE;
+    private static final MethodHandle MISMATCHING_INTERMEDIATE;
+    
+    static {
+        try {
+            IS_NULL = LOOKUP.findStatic(Objects.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+            IS_INSTANCE = LOOKUP.findVirtual(Class.class, "isInstance", MethodType.methodType(boolean.class, Object.class));
+            NULL_INTERMEDIATE = LOOKUP.findStatic(ParsedOrigin.class, "nullIntermediate", MethodType.methodType(Object.class, Object.class));
+            MISMATCHING_INTERMEDIATE = LOOKUP.findStatic(ParsedOrigin.class, "mismatchingIntermediate", MethodType.methodType(Object.class, Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            throw new RuntimeException("Internal error: unable to initialize the method handles for fused field accesses: " + e.toString());
+        }
+    }
+    
     private final String origin;
+    private final OriginAccessBackend backend;
     private final String[] fields;
     private final Set<String> dependedOrigins = new HashSet<>();
-    private final OriginAccessor[] originAccessSpecifier;
-    private int nextUnparsed = 0;
+    private final OriginSymbolTable symbols;
+    private final OriginSymbolTable.Symbol symbol; //keeps the identifier valid
+    private final String[] dependedOriginsArray;
+    private final OriginSymbolTable.Symbol[] dependedOriginsSymbols; //keep the identifiers valid
+    private final int[] dependedOriginsIds;
+    
+    //null until compiled; the array is fully built before being 
+    //published, so that compiled origins can be shared among threads
+    private volatile OriginAccessor[] originAccessSpecifier = null;
 
     public ParsedOrigin(String origin) {
+        this(origin, OriginAccessBackend.REFLECTION);
+    }
+
+    public ParsedOrigin(String origin, OriginAccessBackend backend) {
+        this(origin, backend, new OriginSymbolTable());
+    }
+
+    ParsedOrigin(String origin, OriginAccessBackend backend, OriginSymbolTable symbols) {
         assert (origin != null && !origin.isEmpty()); 
+        assert (backend != null);
+        assert (symbols != null);
         this.origin = origin;
+        this.backend = backend;
         this.fields = splitFields(origin); 
-        this.originAccessSpecifier = new OriginAccessor[this.fields.length];
 
         String dependedOrigin = this.fields[0];
         this.dependedOrigins.add(dependedOrigin);
@@ -43,6 +78,100 @@ public class ParsedOrigin {
             dependedOrigin += "." + this.fields[i];
             this.dependedOrigins.add(dependedOrigin);			
         }
+        
+        this.symbols = symbols;
+        this.symbol = symbols.symbol(origin);
+        this.dependedOriginsArray = this.dependedOrigins.toArray(new String[0]);
+        this.dependedOriginsSymbols = new OriginSymbolTable.Symbol[this.dependedOriginsArray.length];
+        this.dependedOriginsIds = new int[this.dependedOriginsArray.length];
+        for (int i = 0; i < this.dependedOriginsArray.length; ++i) {
+            this.dependedOriginsSymbols[i] = symbols.symbol(this.dependedOriginsArray[i]);
+            this.dependedOriginsIds[i] = this.dependedOriginsSymbols[i].id;
+        }
+    }
+
+    /**
+     * Returns the table of the identifiers of this origin.
+     * 
+     * @return the {@link OriginSymbolTable} of the {@link SushiLibCache}
+     *         that created this origin, or a table of its own.
+     */
+    OriginSymbolTable getSymbols() {
+        return this.symbols;
+    }
+
+    /**
+     * Returns the identifier of this origin.
+     * 
+     * @return the {@link OriginSymbolTable.Symbol} of this origin 
+     *         in {@link #getSymbols()}.
+     */
+    OriginSymbolTable.Symbol getSymbol() {
+        return this.symbol;
+    }
+    
+    /**
+     * Returns the identifiers of the origins this origin depends on.
+     * They are valid as long as this origin is reachable.
+     * 
+     * @return an {@code int[]} containing the identifiers in 
+     *         {@link #getSymbols()} of the elements of 
+     *         {@link #getDependedOriginsArray()}. It must not be modified.
+     */
+    int[] getDependedOriginsIds() {
+        return this.dependedOriginsIds;
+    }
+
+    /**
+     * Returns the origins this origin depends on.
+     * 
+     * @return a {@code String[]} containing the elements of 
+     *         {@link #getDependedOrigins()}. It must not be modified.
+     */
+    String[] getDependedOriginsArray() {
+        return this.dependedOriginsArray;
+    }
+
+    /**
+     * Returns the origins this origin depends on, i.e., its prefixes 
+     * up to and including the origin itself.
+     * 
+     * @return an unmodifiable {@link Set}{@code <}{@link String}{@code >}.
+     */
+    Set<String> getDependedOrigins() {
+        return Collections.unmodifiableSet(this.dependedOrigins);
+    }
+
+    /**
+     * Returns the root of this origin.
+     *
+     * @return the identifier of the local variable (parameter) this origin
+     *         starts from, i.e., its key in the candidate objects, or
+     *         {@code null} if it starts from a static field or a method
+     *         invocation.
+     */
+    String getRoot() {
+        return (this.fields[0].startsWith("{") ? this.fields[0] : null);
+    }
+
+    /**
+     * Checks whether getting this origin requires getting other
+     * origins, i.e., whether it starts with a method invocation or
+     * accesses an array by a symbolic index.
+     *
+     * @return a {@code boolean}.
+     */
+    boolean readsOtherOrigins() {
+        if (this.fields[0].startsWith("<")) {
+            return true;
+        }
+        for (int i = 1; i < this.fields.length; ++i) {
+            final String field = this.fields[i];
+            if (field.startsWith("[") && field.endsWith("]") && !field.substring(1, field.length() - 1).matches("[0-9]+")) {
+                return true;
+            }
+        }
+        return false;
     }
 
     private String[] splitFields(String origin) {
@@ -116,116 +245,149 @@ public class ParsedOrigin {
         return fields.toArray(new String[0]);
     }
 
-    public Object get(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
-    throws FieldDependsOnInvalidFieldPathException, FieldNotInCandidateException, ObjectNotInCandidateException {
-        //1. Check if any dependedOrigin is invalid, throw exception to abort
-        final Set<String> smallerSet;
-        final Set<String> biggerSet;
-        if (candidateBackbone.getInvalidFieldPaths().size() <= this.dependedOrigins.size()) {
-            smallerSet = candidateBackbone.getInvalidFieldPaths();
-            biggerSet = this.dependedOrigins;
+    boolean isCompiled() {
+        return (this.originAccessSpecifier != null);
+    }
+
+    /**
+     * Resolves, once and for all, the static fields, the declared fields and 
+     * the methods this origin refers to, and builds the chain of accessors 
+     * that {@link #get(Map, CandidateBackbone, Map, SushiLibCache) get} 
+     * walks. Compiling an already compiled origin has no effect, and 
+     * concurrent compilations of the same origin are harmless. 
+     * 
+     * @param classLoader the {@link ClassLoader} used to resolve the classes 
+     *        mentioned in the origin.
+     * @return this {@link ParsedOrigin}.
+     * @throws SimilarityComputationException if the origin is ill-formed or
+     *         refers to classes, fields or methods that do not exist.
+     */
+    public ParsedOrigin compile(ClassLoader classLoader) {
+        if (this.originAccessSpecifier != null) {
+            return this;
+        }
+        
+        final ArrayList<OriginAccessor> accessors = new ArrayList<>();
+        final int firstField;
+        if (this.fields[0].startsWith("[")) {
+            accessors.add(compileAccessorStaticField(classLoader));
+            firstField = 2;
+        } else if (this.fields[0].startsWith("{")) {
+            accessors.add(new OriginAccessorRootObject(this.fields[0]));
+            firstField = 1;
+        } else if (this.fields[0].startsWith("<")) {
+            accessors.add(compileAccessorMethodInvocation(classLoader));
+            firstField = 1;
         } else {
-            smallerSet = this.dependedOrigins;
-            biggerSet = candidateBackbone.getInvalidFieldPaths();
+            throw new SimilarityComputationException("Unrecognized origin " + origin + ".");
+        }
+        for (int i = firstField; i < this.fields.length; ++i) {
+            final String field = this.fields[i];
+            if ("<identityHashCode>".equals(field)) {
+                accessors.add(new OriginAccessorIdentityHashCode());
+            } else if ("length".equals(field) || field.startsWith("[")) {
+                accessors.add(compileAccessorArrayLocation(field));
+            } else {
+                accessors.add(compileAccessorField(field, classLoader));
+            }
         }
-        for (String s : smallerSet) {
-            if (biggerSet.contains(s)) {
-                throw new FieldDependsOnInvalidFieldPathException(s);
+        
+        if (this.backend == OriginAccessBackend.FUSED_METHOD_HANDLES) {
+            fuseFieldAccessors(accessors);
+        }
+        
+        this.originAccessSpecifier = accessors.toArray(new OriginAccessor[0]);
+        return this;
+    }
+    
+    private void fuseFieldAccessors(List<OriginAccessor> accessors) {
+        int i = 0;
+        while (i < accessors.size()) {
+            //finds the run of fusible field accessors starting at i
+            int end = i;
+            while (end < accessors.size() && accessors.get(end) instanceof OriginAccessorFieldHandle) {
+                ++end;
+            }
+            if (end - i >= 2) {
+                final List<OriginAccessor> run = accessors.subList(i, end);
+                final OriginAccessorFusedFields fused = new OriginAccessorFusedFields(run.toArray(new OriginAccessorFieldHandle[0]));
+                run.clear();
+                accessors.add(i, fused);
+                ++i;
+            } else {
+                i = Math.max(end, i + 1);
             }
         }
+    }
+    
+    private static Object nullIntermediate(Object obj) throws FieldNotInCandidateException {
+        throw new FieldNotInCandidateException();
+    }
+    
+    private static Object mismatchingIntermediate(Object obj) {
+        throw FusedChainMismatch.INSTANCE;
+    }
+    
+    /**
+     * Signals that a fused chain of field accesses met an object whose class 
+     * is not the one the next field was resolved against. It is thrown only 
+     * to switch to the unfused accessors, and thus carries no stack trace.
+     */
+    private static final class FusedChainMismatch extends RuntimeException {
+        private static final long serialVersionUID = 5018620245766741474L;
+        static final FusedChainMismatch INSTANCE = new FusedChainMismatch();
+        
+        private FusedChainMismatch() {
+            super(null, null, false, false);
+        }
+    }
 
-        /* You may want to activate this code to profile the execution:
-		if (nextUnparsed <= 0) {
-			SushiLibCache._I().misses++;
-		} else if (nextUnparsed >= fields.length) {
-			SushiLibCache._I().hits++;			
-		} else {
-			SushiLibCache._I().partialHits++;
-		}*/
-
-        //2. retrieve the object for the already parsed fields
-        Object obj = null;
-        for (int i = 0; i < this.originAccessSpecifier.length; ++i) {
-            final OriginAccessor accessor = this.originAccessSpecifier[i]; 
-            if (accessor == null) { 
-                if (i == 1) {
-                    continue; //check also next accessor: the 2nd accessor is empty for origins that start from static fields
-                } else {
-                    break;
-                }
-            }
-            obj = accessor.getActualObject(candidateObjects, obj, candidateBackbone, constants, cache);
+    public Object get(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
+    throws FieldDependsOnInvalidFieldPathException, FieldNotInCandidateException, ObjectNotInCandidateException {
+        //1. Check if any dependedOrigin is invalid, throw exception to abort
+        final String invalidFieldPath = candidateBackbone.findInvalidDependedOrigin(this);
+        if (invalidFieldPath != null) {
+            throw new FieldDependsOnInvalidFieldPathException(invalidFieldPath);
         }
 
-        //3. complete parsing, if not yet done or done only partially
-        while (this.nextUnparsed < this.fields.length) {
-            if (this.nextUnparsed == 0) {
-                final boolean startsFromRootVariable = this.fields[0].startsWith("{");
-                final boolean startsFromStaticField = this.fields[0].startsWith("[");
-                final boolean startsFromMethodInvocation = this.fields[0].startsWith("<");
-                if (startsFromStaticField) {
-                    obj = parseAccessorStaticField();
-                    this.nextUnparsed = 2;		
-                } else if (startsFromRootVariable) {
-                    obj = parseAccessorRootObject(candidateObjects);
-                    this.nextUnparsed = 1;		
-                } else if (startsFromMethodInvocation) {
-                    obj = parseAccessorMethodInvocation(candidateObjects, candidateBackbone, constants, cache);
-                    this.nextUnparsed = 1;							
-                } else {
-                    throw new SimilarityComputationException("Unrecognized origin " + origin + ".");
-                }
-            } else {
-                if (obj == null) {
-                    throw new FieldNotInCandidateException();
-                } else {
-                    if ("<identityHashCode>".equals(this.fields[this.nextUnparsed])) {
-                        obj = parseAccessorIdentityHashCode(obj);
-                    } else if (obj.getClass().isArray()) {
-                        obj = parseAccessorArrayLocation(obj, candidateObjects, candidateBackbone, constants, cache);  
-                    } else {
-                        obj = parseAccessorField(obj);
-                    }
-                    ++this.nextUnparsed;
-                }
-            }
+        //2. compile, if not yet done
+        OriginAccessor[] accessors = this.originAccessSpecifier;
+        if (accessors == null) {
+            accessors = compile(candidateBackbone.getClassLoader()).originAccessSpecifier;
         }
 
+        //3. retrieve the object by walking the accessors chain
+        Object obj = null;
+        for (OriginAccessor accessor : accessors) {
+            obj = accessor.getActualObject(candidateObjects, obj, candidateBackbone, constants, cache);
+        }
         return obj;
     }
 
-    private Object parseAccessorStaticField() {	
+    private OriginAccessor compileAccessorStaticField(ClassLoader classLoader) {	
         final String className = javaClass(this.fields[0].substring(1, this.fields[0].length() - 1), false);
         final String fieldName = this.fields[1].substring(this.fields[1].indexOf(':') + 1);
         try {
-            final Field f = Class.forName(className).getDeclaredField(fieldName);
+            final Field f = Class.forName(className, true, classLoader).getDeclaredField(fieldName);
             if (f == null) {
                 throw new SimilarityComputationException("Static field with name " + fieldName + " does not exist in class " + className + "; origin " + this.origin + ".");
             }
-            final OriginAccessorStaticField accessor = new OriginAccessorStaticField(f);
-            final Object ret = accessor.getActualObject();
-            this.originAccessSpecifier[0] = accessor;
-            return ret;
+            f.setAccessible(true);
+            if (this.backend != OriginAccessBackend.REFLECTION) {
+                try {
+                    final MethodHandle getter = LOOKUP.unreflectGetter(f).asType(MethodType.methodType(Object.class));
+                    return new OriginAccessorStaticFieldHandle(f, getter);
+                } catch (IllegalAccessException e) {
+                    //falls back to reflection
+                }
+            }
+            return new OriginAccessorStaticField(f);
         } catch (NoSuchFieldException | SecurityException | ClassNotFoundException e) {
             throw new SimilarityComputationException("Unexpected reflective exception while accessing static field " + className + "." + fieldName + ". Exception: " + e );
         }
-
-    }
-
-    private Object parseAccessorRootObject(Map<String, Object> candidateObjects) {
-        final String root = this.fields[0];
-        if (candidateObjects.containsKey(root)) {
-            final OriginAccessorRootObject accessor = new OriginAccessorRootObject(root);
-            final Object ret = accessor.getActualObject(candidateObjects);
-            this.originAccessSpecifier[0] = accessor;
-            return ret;
-        } else {
-            throw new SimilarityComputationException("Local variable (parameter) origin " + root + " not found in candidateObjects.");
-        }
     }
 
-    private Object parseAccessorMethodInvocation(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
-    throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+    private OriginAccessor compileAccessorMethodInvocation(ClassLoader classLoader) {
         //gets the position of the first semicolon
         final int firstSemicolonIndex = this.fields[0].indexOf(':');
         if (firstSemicolonIndex == -1) {
@@ -258,6 +420,7 @@ public class ParsedOrigin {
         final String methodDescriptor = this.fields[0].substring(firstSemicolonIndex + 1, secondSemicolonIndex);
         final String methodName = this.fields[0].substring(secondSemicolonIndex + 1, firstAtSignIndex);
         final String parameters = this.fields[0].substring(firstAtSignIndex + 1, endOfParameterList);
+        final String methodSignature = methodClassName + ":" + methodDescriptor + ":" + methodName;
 
         //splits the parameters list into parameters
         final ArrayList<String> parametersList = new ArrayList<>();
@@ -279,71 +442,71 @@ public class ParsedOrigin {
         }
         parametersList.add(parameters.substring(beginParameter).trim()); //last parameter
 
-        //performs the method invocation
+        //resolves the method
         try {
-            final Class<?> methodClass = candidateBackbone.getClassLoader().loadClass(javaClass(methodClassName, false));
+            final Class<?> methodClass = classLoader.loadClass(javaClass(methodClassName, false));
             final Method m = method(methodClass, methodDescriptor, methodName);
             final boolean isMethodStatic = Modifier.isStatic(m.getModifiers());
             if (parametersList.size() != splitParametersDescriptors(methodDescriptor).length + (isMethodStatic ? 0 : 1)) {
                 throw new RuntimeException("Internal error: parameters list (" + parameters + ") was split into " + parametersList.size() + " parameters, but descriptor " + methodDescriptor + " says that there should be " + splitParametersDescriptors(methodDescriptor).length + " parameters instead.");
             }
-
-            final OriginAccessorMethodInvocation accessor = new OriginAccessorMethodInvocation(m, isMethodStatic, parametersList);
-            final Object ret = accessor.getActualObject(candidateObjects, candidateBackbone, constants, cache);
-            this.originAccessSpecifier[0] = accessor;
-            return ret;
+            m.setAccessible(true);
+            if (this.backend != OriginAccessBackend.REFLECTION) {
+                try {
+                    final MethodHandle invoker = LOOKUP.unreflect(m).asSpreader(Object[].class, parametersList.size()).asType(MethodType.methodType(Object.class, Object[].class));
+                    return new OriginAccessorMethodInvocationHandle(methodSignature, m, isMethodStatic, parametersList.toArray(new String[0]), invoker);
+                } catch (IllegalAccessException e) {
+                    //falls back to reflection
+                }
+            }
+            return new OriginAccessorMethodInvocation(methodSignature, m, isMethodStatic, parametersList.toArray(new String[0]));
         } catch (NoSuchMethodException | ClassNotFoundException | SecurityException e) {
             throw new SimilarityComputationException("Unexpected reflective exception while getting method " + methodClassName + ":" + methodDescriptor + ":" + methodName + ". Exception: " + e.toString());
         } 		
     }
 
-    private Object parseAccessorIdentityHashCode(Object obj) throws FieldNotInCandidateException {
-        final OriginAccessorIdentityHashCode accessor = new OriginAccessorIdentityHashCode();
-        final Object ret = accessor.getActualObject(obj); 
-        this.originAccessSpecifier[this.nextUnparsed] = accessor;
-        return ret;
-    }
-
-    private Object parseAccessorArrayLocation(Object obj, Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
-    throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
-        final String arrayAccessor = this.fields[this.nextUnparsed];
+    private OriginAccessor compileAccessorArrayLocation(String arrayAccessor) {
         if (arrayAccessor.equals("length")) {
-            final OriginAccessorArrayLength accessor = new OriginAccessorArrayLength();
-            final Object ret = accessor.getActualObject(obj);
-            this.originAccessSpecifier[this.nextUnparsed] = accessor;
-            return ret;
+            return new OriginAccessorArrayLength();
         } else if (arrayAccessor.matches("\\[.*\\]")) {
             final String indexString = arrayAccessor.substring(1, arrayAccessor.length() - 1);
             try {
-                int index = Integer.parseInt(indexString);
-                final OriginAccessorArrayLocationResolvedIndex accessor = new OriginAccessorArrayLocationResolvedIndex(index);
-                final Object ret = accessor.getActualObject(obj); 
-                this.originAccessSpecifier[this.nextUnparsed] = accessor;
-                return ret;
+                final int index = Integer.parseInt(indexString);
+                return new OriginAccessorArrayLocationResolvedIndex(index);
             } catch (NumberFormatException e) {
-                final OriginAccessorArrayLocationUnresolvedIndex accessor = new OriginAccessorArrayLocationUnresolvedIndex(indexString);
-                final Object ret = accessor.getActualObject(candidateObjects, obj, candidateBackbone, constants, cache); 
-                this.originAccessSpecifier[this.nextUnparsed] = accessor;
-                return ret;				
+                return new OriginAccessorArrayLocationUnresolvedIndex(indexString);
             }
         } else {
             throw new SimilarityComputationException("Unexpected array accessor " +  arrayAccessor + " (neither index nor length).");					
         }
     }
 
-    private Object parseAccessorField(Object obj) throws FieldNotInCandidateException {
-        final String fieldAndClassName = this.fields[this.nextUnparsed];
-        final String[] fieldAndClassNameSplit = fieldAndClassName.split(":");
-        final String fieldName = fieldAndClassNameSplit[1];
-        final String className = fieldAndClassNameSplit[0];
-        final Field f = ReflectionUtils.getInheritedPrivateField(obj.getClass(), fieldName, className);
-        if (f == null) {
-            throw new FieldNotInCandidateException(); // This can happen if the origin refers to a field of a sub-type
+    private OriginAccessor compileAccessorField(String fieldAndClassName, ClassLoader classLoader) {
+        final int separatorIndex = fieldAndClassName.indexOf(':');
+        if (separatorIndex == -1) {
+            throw new SimilarityComputationException("Unrecognized origin " + origin + " (field " + fieldAndClassName + " has no class name).");
+        }
+        final String className = fieldAndClassName.substring(0, separatorIndex);
+        final String fieldName = fieldAndClassName.substring(separatorIndex + 1);
+        
+        //resolves the field in its declaring class, if it can be loaded; 
+        //otherwise it will be resolved against the class of the accessed objects
+        Field f;
+        try {
+            f = Class.forName(className.replace('/', '.'), false, classLoader).getDeclaredField(fieldName);
+            f.setAccessible(true);
+        } catch (ClassNotFoundException | NoSuchFieldException | SecurityException | LinkageError e) {
+            f = null;
+        }
+        if (f != null && this.backend != OriginAccessBackend.REFLECTION) {
+            try {
+                final MethodHandle getter = LOOKUP.unreflectGetter(f).asType(MethodType.methodType(Object.class, Object.class));
+                return new OriginAccessorFieldHandle(className, fieldName, f, getter);
+            } catch (IllegalAccessException e) {
+                //falls back to reflection
+            }
         }
-        final OriginAccessorField accessor = new OriginAccessorField(f);
-        final Object ret = accessor.getActualObject(obj);
-        this.originAccessSpecifier[this.nextUnparsed] = accessor;
-        return ret;
+        return new OriginAccessorField(className, fieldName, f);
     }
 
     private abstract class OriginAccessor {
@@ -360,11 +523,6 @@ public class ParsedOrigin {
 
         @Override
         Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) {
-            return getActualObject();
-        }
-
-        Object getActualObject() {
-            this.field.setAccessible(true);
             try {
                 return this.field.get(null);
             } catch (SecurityException | IllegalArgumentException | IllegalAccessException e) {
@@ -373,6 +531,25 @@ public class ParsedOrigin {
         }
     }
 
+    private class OriginAccessorStaticFieldHandle extends OriginAccessor {
+        private final Field field;
+        private final MethodHandle getter;
+
+        OriginAccessorStaticFieldHandle(Field field, MethodHandle getter) {
+            this.field = field;
+            this.getter = getter;
+        }
+
+        @Override
+        Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) {
+            try {
+                return (Object) this.getter.invokeExact();
+            } catch (Throwable e) {
+                throw new SimilarityComputationException("Unexpected error while retrieving the value of a static field: " + this.field, e);
+            }
+        }
+    }
+
     private class OriginAccessorRootObject extends OriginAccessor {
         private final String rootObjIdentifier;
 
@@ -382,43 +559,68 @@ public class ParsedOrigin {
 
         @Override
         Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) {
-            return getActualObject(candidateObjects);
-        }
-
-        Object getActualObject(Map<String, Object> candidateObjects) {
-            return candidateObjects.get(this.rootObjIdentifier);
+            final Object ret = candidateObjects.get(this.rootObjIdentifier);
+            if (ret == null && !candidateObjects.containsKey(this.rootObjIdentifier)) {
+                throw new SimilarityComputationException("Local variable (parameter) origin " + this.rootObjIdentifier + " not found in candidateObjects.");
+            }
+            return ret;
         }
     }
 
     private class OriginAccessorMethodInvocation extends OriginAccessor {
-        private final Method method;
-        private final boolean isMethodStatic;
-        private final List<String> parametersList;
-
-        OriginAccessorMethodInvocation(Method method, boolean isMethodStatic, List<String> parametersList) {
+        private final String methodSignature;
+        protected final Method method;
+        protected final boolean isMethodStatic;
+        private final String[] parametersList;
+        private final boolean isMethodAnnotatedPure;
+        
+        //null until the first invocation
+        private volatile ValueExpression[] parameters = null;
+
+        OriginAccessorMethodInvocation(String methodSignature, Method method, boolean isMethodStatic, String[] parametersList) {
+            this.methodSignature = methodSignature;
             this.method = method;
             this.isMethodStatic = isMethodStatic;
             this.parametersList = parametersList;
+            this.isMethodAnnotatedPure = method.isAnnotationPresent(PureMethod.class);
         }
 
         @Override
         Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
         throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
-            return getActualObject(candidateObjects, candidateBackbone, constants, cache);
-        }
-
-        Object getActualObject(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
-        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            ValueExpression[] parameters = this.parameters;
+            if (parameters == null) {
+                parameters = new ValueExpression[this.parametersList.length];
+                for (int i = 0; i < this.parametersList.length; ++i) {
+                    parameters[i] = cache.getValueExpression(this.parametersList[i]);
+                }
+                this.parameters = parameters;
+            }
+            //checked at every invocation, as the methods can be declared pure at any time
+            final boolean isMethodPure = (this.isMethodAnnotatedPure || cache.isDeclaredPureMethod(this.methodSignature));
+            
             //gets the parameters in the list
-            final Object[] objParameters = new Object[this.parametersList.size()];
-            for (int i = 0; i < this.parametersList.size(); ++i) {
-                final String parameter = this.parametersList.get(i);
-                final Object objParameter = eval(parameter, candidateObjects, candidateBackbone, constants, cache);
-                objParameters[i] = objParameter;
+            final Object[] objParameters = new Object[parameters.length];
+            for (int i = 0; i < parameters.length; ++i) {
+                objParameters[i] = parameters[i].eval(candidateObjects, candidateBackbone, constants, cache);
+            }
+            if (!isMethodPure) {
+                return invoke(objParameters);
+            }
+            
+            //pure method: memoizes its invocations
+            final MethodInvocation invocation = new MethodInvocation(this.method, objParameters);
+            final Object memoizedResult = candidateBackbone.getMemoizedInvocation(invocation);
+            if (memoizedResult != null) {
+                return (memoizedResult == MethodInvocation.NULL_RESULT ? null : memoizedResult);
             }
+            final Object result = invoke(objParameters);
+            candidateBackbone.memoizeInvocation(invocation, (result == null ? MethodInvocation.NULL_RESULT : result));
+            return result;
+        }
 
+        Object invoke(Object[] objParameters) throws FieldNotInCandidateException, ObjectNotInCandidateException {
             try {
-                this.method.setAccessible(true);
                 if (this.isMethodStatic) {
                     return this.method.invoke(null, objParameters);
                 } else if (objParameters[0] == null) {
@@ -435,56 +637,201 @@ public class ParsedOrigin {
         }
     }
 
-    private class OriginAccessorIdentityHashCode extends OriginAccessor {
-        private final Method identityHashCodeMethod;
+    private class OriginAccessorMethodInvocationHandle extends OriginAccessorMethodInvocation {
+        private final MethodHandle invoker;
+
+        OriginAccessorMethodInvocationHandle(String methodSignature, Method method, boolean isMethodStatic, String[] parametersList, MethodHandle invoker) {
+            super(methodSignature, method, isMethodStatic, parametersList);
+            this.invoker = invoker;
+        }
 
-        OriginAccessorIdentityHashCode() {
+        @Override
+        Object invoke(Object[] objParameters) throws FieldNotInCandidateException, ObjectNotInCandidateException {
+            if (!this.isMethodStatic && objParameters[0] == null) {
+                //instance method with a null 'this' parameter
+                throw new FieldNotInCandidateException();
+            }
             try {
-                this.identityHashCodeMethod = System.class.getMethod("identityHashCode", Object.class);
-            } catch (NoSuchMethodException | SecurityException e) {
-                throw new SimilarityComputationException("Reflective exception while seacrhing for method identityHashCode; exception: " + e.toString());
+                return (Object) this.invoker.invokeExact(objParameters);
+            } catch (ClassCastException | NullPointerException | IllegalArgumentException e) {
+                if (!acceptsArguments(objParameters)) {
+                    //raised while converting the arguments, where Method.invoke raises IllegalArgumentException
+                    throw new SimilarityComputationException("Unexpected reflective exception while invoking method " + this.method + "; exception: " + e.toString(), e);
+                }
+                throw new ObjectNotInCandidateException("Method " + this.method + " did not return a result because it raised an exception: " + e.toString() + "; parameters: " + Arrays.toString(objParameters));
+            } catch (Throwable e) {
+                //raised by the method, errors included, as Method.invoke wraps them in InvocationTargetException
+                throw new ObjectNotInCandidateException("Method " + this.method + " did not return a result because it raised an exception: " + e.toString() + "; parameters: " + Arrays.toString(objParameters));
             }
         }
 
+        private boolean acceptsArguments(Object[] objParameters) {
+            final Class<?>[] parameterTypes = this.method.getParameterTypes();
+            final int first = (this.isMethodStatic ? 0 : 1);
+            if (objParameters.length != first + parameterTypes.length) {
+                return false;
+            }
+            if (!this.isMethodStatic && !this.method.getDeclaringClass().isInstance(objParameters[0])) {
+                return false;
+            }
+            for (int i = 0; i < parameterTypes.length; ++i) {
+                if (!isAssignable(parameterTypes[i], objParameters[first + i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether an argument can be passed to a parameter 
+     * by {@link Method#invoke(Object, Object...)}, i.e., possibly 
+     * after an unboxing and a widening primitive conversion.
+     * 
+     * @param type the {@link Class} of the parameter.
+     * @param arg the argument, an {@link Object}.
+     * @return a {@code boolean}.
+     */
+    private static boolean isAssignable(Class<?> type, Object arg) {
+        if (!type.isPrimitive()) {
+            return (arg == null || type.isInstance(arg));
+        }
+        if (arg == null) {
+            return false;
+        }
+        if (type == boolean.class) {
+            return (arg instanceof Boolean);
+        }
+        if (type == char.class) {
+            return (arg instanceof Character);
+        }
+        final int argRank = numericRank(arg.getClass());
+        return (argRank >= 0 && argRank <= numericRank(type));
+    }
+
+    private static int numericRank(Class<?> type) {
+        if (type == Byte.class || type == byte.class) {
+            return 0;
+        } else if (type == Short.class || type == short.class) {
+            return 1;
+        } else if (type == Character.class || type == Integer.class || type == int.class) {
+            return 2; //char widens to int, not to short
+        } else if (type == Long.class || type == long.class) {
+            return 3;
+        } else if (type == Float.class || type == float.class) {
+            return 4;
+        } else if (type == Double.class || type == double.class) {
+            return 5;
+        } else {
+            return -1;
+        }
+    }
+
+    /**
+     * An invocation of a pure method, the key for memoizing its result. 
+     * Two invocations are the same when their arguments are the same 
+     * objects, or equal boxed primitives or strings.
+     */
+    static final class MethodInvocation {
+        /** Memoizes the invocations that return {@code null}. */
+        static final Object NULL_RESULT = new Object();
+
+        private final Method method;
+        private final Object[] arguments;
+        private final int hashCode;
+
+        MethodInvocation(Method method, Object[] arguments) {
+            this.method = method;
+            this.arguments = arguments;
+            int hashCode = method.hashCode();
+            for (Object argument : arguments) {
+                hashCode = 31 * hashCode + (isValue(argument) ? argument.hashCode() : System.identityHashCode(argument));
+            }
+            this.hashCode = hashCode;
+        }
+
+        private static boolean isValue(Object o) {
+            return (o instanceof Number || o instanceof Boolean || o instanceof Character || o instanceof String);
+        }
+
         @Override
-        Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
-        throws FieldNotInCandidateException {
-            return getActualObject(obj);
+        public int hashCode() {
+            return this.hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof MethodInvocation)) {
+                return false;
+            }
+            final MethodInvocation other = (MethodInvocation) obj;
+            if (this.hashCode != other.hashCode || !this.method.equals(other.method) || this.arguments.length != other.arguments.length) {
+                return false;
+            }
+            for (int i = 0; i < this.arguments.length; ++i) {
+                final Object argument = this.arguments[i], otherArgument = other.arguments[i];
+                if (argument != otherArgument && !(isValue(argument) && argument.equals(otherArgument))) {
+                    return false;
+                }
+            }
+            return true;
         }
+    }
 
-        Object getActualObject(Object obj) throws FieldNotInCandidateException {
+    private class OriginAccessorIdentityHashCode extends OriginAccessor {
+        OriginAccessorIdentityHashCode() { }
+
+        @Override
+        Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
+        throws FieldNotInCandidateException {
             if (obj == null) {
                 throw new FieldNotInCandidateException();
             }	
-            try {
-                obj = this.identityHashCodeMethod.invoke(null, obj);
-            } catch (IllegalAccessException | IllegalArgumentException | InvocationTargetException e) {
-                throw new SimilarityComputationException("Reflective exception while invoking method " + this.identityHashCodeMethod + "; exception: " + e.toString());
-            }
-            return obj;
+            return Integer.valueOf(System.identityHashCode(obj));
         }		
     }
 
     private class OriginAccessorField extends OriginAccessor {
-        private final Field field;
+        private final String className;
+        private final String fieldName;
+        protected final Field declaredField;
 
-        OriginAccessorField(Field field) {
-            this.field = field;
+        OriginAccessorField(String className, String fieldName, Field declaredField) {
+            this.className = className;
+            this.fieldName = fieldName;
+            this.declaredField = declaredField;
         }
 
         @Override
         Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
         throws FieldNotInCandidateException {
-            return getActualObject(obj);
-        }
-
-        private Object getActualObject(Object obj) throws FieldNotInCandidateException {
             if (obj == null) {
                 throw new FieldNotInCandidateException();
-            }	
+            }
+            if (this.declaredField != null && this.declaredField.getDeclaringClass().isInstance(obj)) {
+                return readDeclaredField(obj);
+            }
+            
+            //the field was resolved against a different class loader, or obj
+            //belongs to a class that does not have the field
+            final Field f = ReflectionUtils.getInheritedPrivateField(obj.getClass(), this.fieldName, this.className);
+            if (f == null) {
+                throw new FieldNotInCandidateException(); // This can happen if the origin refers to a field of a sub-type
+            }
+            f.setAccessible(true);
+            return readField(f, obj);
+        }
+        
+        Object readDeclaredField(Object obj) throws FieldNotInCandidateException {
+            return readField(this.declaredField, obj);
+        }
+
+        private Object readField(Field f, Object obj) throws FieldNotInCandidateException {
             try {
-                this.field.setAccessible(true);
-                return this.field.get(obj);
+                return f.get(obj);
             } catch (IllegalArgumentException | IllegalAccessException e) {
                 throw new FieldNotInCandidateException();
                 //throw new SimilarityComputationException("Unexpected error while retrieving the value of member field: " + field + ", from object of class " + obj.getClass());
@@ -492,22 +839,76 @@ public class ParsedOrigin {
         }
     }
 
+    private class OriginAccessorFieldHandle extends OriginAccessorField {
+        private final MethodHandle getter;
+
+        OriginAccessorFieldHandle(String className, String fieldName, Field declaredField, MethodHandle getter) {
+            super(className, fieldName, declaredField);
+            this.getter = getter;
+        }
+
+        @Override
+        Object readDeclaredField(Object obj) throws FieldNotInCandidateException {
+            try {
+                return (Object) this.getter.invokeExact(obj);
+            } catch (ClassCastException e) {
+                //obj is not an instance of the declaring class, where Field.get raises IllegalArgumentException
+                throw new FieldNotInCandidateException();
+            } catch (Throwable e) {
+                throw new SimilarityComputationException("Unexpected error while retrieving the value of member field: " + this.declaredField + ", from object of class " + obj.getClass(), e);
+            }
+        }
+    }
+
+    private class OriginAccessorFusedFields extends OriginAccessor {
+        private final OriginAccessorFieldHandle[] accessors;
+        private final MethodHandle chain;
+
+        OriginAccessorFusedFields(OriginAccessorFieldHandle[] accessors) {
+            this.accessors = accessors;
+            MethodHandle chain = null;
+            for (OriginAccessorFieldHandle accessor : accessors) {
+                final MethodHandle isInstance = IS_INSTANCE.bindTo(accessor.declaredField.getDeclaringClass());
+                final MethodHandle step = MethodHandles.guardWithTest(IS_NULL, NULL_INTERMEDIATE, 
+                                                                      MethodHandles.guardWithTest(isInstance, accessor.getter, MISMATCHING_INTERMEDIATE));
+                chain = (chain == null ? step : MethodHandles.filterReturnValue(chain, step));
+            }
+            this.chain = chain;
+        }
+
+        @Override
+        Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
+        throws FieldNotInCandidateException {
+            try {
+                return (Object) this.chain.invokeExact(obj);
+            } catch (FieldNotInCandidateException e) {
+                throw e;
+            } catch (FusedChainMismatch e) {
+                //falls through to the unfused accessors
+            } catch (Throwable e) {
+                //falls through as well, so that the unfused accessors 
+                //raise the same exceptions they raise when not fused
+            }
+            
+            Object ret = obj;
+            for (OriginAccessorFieldHandle accessor : this.accessors) {
+                ret = accessor.getActualObject(candidateObjects, ret, candidateBackbone, constants, cache);
+            }
+            return ret;
+        }	
+    }
+
     private class OriginAccessorArrayLength extends OriginAccessor {
         OriginAccessorArrayLength() { }
 
         @Override
         Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
-        throws FieldNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+        throws FieldNotInCandidateException {
             if (obj == null) {
                 throw new FieldNotInCandidateException();
             }	
-            return getActualObject(obj);
-        }	
-
-        Object getActualObject(Object obj) 
-        throws FieldNotInCandidateException, FieldDependsOnInvalidFieldPathException {
             return Array.getLength(obj);
-        }
+        }	
     }
 
     private class OriginAccessorArrayLocationResolvedIndex extends OriginAccessor {
@@ -518,25 +919,24 @@ public class ParsedOrigin {
         }
 
         @Override
-        Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) throws FieldNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+        Object getActualObject(Map<String, Object> candidateObjects, Object obj, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
+        throws FieldNotInCandidateException {
             if (obj == null) {
                 throw new FieldNotInCandidateException();
             }	
-            return getActualObject(obj);
-        }	
-
-        Object getActualObject(Object obj) 
-        throws FieldNotInCandidateException {
             try {
                 return Array.get(obj, this.index);
             } catch (ArrayIndexOutOfBoundsException e) {
                 throw new FieldNotInCandidateException();
             }
-        }
+        }	
     }
 
     private class OriginAccessorArrayLocationUnresolvedIndex extends OriginAccessor {
         private final String indexString;	
+        
+        //null until the first access
+        private volatile ValueExpression indexExpression = null;
 
         OriginAccessorArrayLocationUnresolvedIndex(String indexString) {
             this.indexString = indexString;					
@@ -553,395 +953,27 @@ public class ParsedOrigin {
 
         private Object retrieveFromArray(Object obj, CandidateBackbone candidateBackbone, Map<String, Object> candidateObjects, Map<Long, String> constants, SushiLibCache cache) 
         throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
-            final Object value = eval(this.indexString, candidateObjects, candidateBackbone, constants, cache);
-            if (value instanceof Integer) {
-                try {
-                    final int index = ((Integer) value).intValue();
-                    return Array.get(obj, index);
-                } catch (ArrayIndexOutOfBoundsException e) {
-                    throw new FieldNotInCandidateException();
-                }
-            } else {
-                throw new SimilarityComputationException("Unexpected array access with noninteger index " + this.indexString + ".");			
+            ValueExpression indexExpression = this.indexExpression;
+            if (indexExpression == null) {
+                indexExpression = this.indexExpression = cache.getValueExpression(this.indexString);
             }
-        }
-    }
-
-    private static final String ADD   = "+";
-    private static final String SUB   = "-";
-    private static final String MUL   = "*";
-    private static final String DIV   = "/";
-    private static final String REM   = "%";
-    private static final String SHL   = "<<";
-    private static final String SHR   = ">>";
-    private static final String USHR  = ">>>";
-    private static final String ORBW  = "|";
-    private static final String ANDBW = "&";
-    private static final String XORBW = "^";
-    private static final String NEG   = "~";
-
-    private Object eval(String valueString, Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
-    throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException, SimilarityComputationException {
-        if (valueString == null) {
-            throw new SimilarityComputationException("Trying to eval a null String.");
-        }
-
-        //Simplex
-        if ("false".equals(valueString)) {
-            return Boolean.FALSE;
-        }
-        if ("true".equals(valueString)) {
-            return Boolean.TRUE;
-        }
-        try {
-            final Integer retVal = Integer.parseInt(valueString);
-            return retVal;
-        } catch (NumberFormatException e) {
-            //it is not an int, fall through
-        }
-        if (valueString.endsWith("L")) {
-            try {
-                final Long retVal = Long.parseLong(valueString.substring(0, valueString.length() - 1));
-                return retVal;
-            } catch (NumberFormatException e) {
-                //it is not a long, fall through
-            }
-        }
-        if (valueString.endsWith("f")) {
-            try {
-                final Float retVal = Float.parseFloat(valueString);
-                return retVal;
-            } catch (NumberFormatException e) {
-                //it is not a float, fall through
-            }
-        }
-        if (valueString.endsWith("d")) {
-            try {
-                final Double retVal = Double.parseDouble(valueString);
-                return retVal;
-            } catch (NumberFormatException e) {
-                //it is not a double, fall through
-            }
-        }
-        if (valueString.startsWith("(byte) ")) {
-            try {
-                final Byte retVal = Byte.parseByte(valueString.substring("(byte) ".length()));
-                return retVal;
-            } catch (NumberFormatException e) {
-                throw new SimilarityComputationException("Ill-formed byte value " + valueString + ".");
-            }
-        }
-        if (valueString.startsWith("(short) ")) {
-            try {
-                final Short retVal = Short.parseShort(valueString.substring("(short) ".length()));
-                return retVal;
-            } catch (NumberFormatException e) {
-                throw new SimilarityComputationException("Ill-formed byte value " + valueString + ".");
-            }
-        }
-        if (valueString.startsWith("'") && valueString.endsWith("'")) {
-            if (valueString.length() == 3) {
-                final Character retVal = Character.valueOf(valueString.charAt(1));
-                return retVal;
-            } else {
-                throw new SimilarityComputationException("Ill-formed char value " + valueString + ".");
-            }
-        }
-
-        //WideningConversion
-        if (valueString.startsWith("WIDEN-")) {
-            final char destinationType = valueString.charAt("WIDEN-".length());
-            final String argString = valueString.substring("WIDEN-X(".length(), valueString.length() - 1);
-            final Object arg = eval(argString, candidateObjects, candidateBackbone, constants, cache);
-            if (arg instanceof Number) {
-                switch (destinationType) {
-                case DOUBLE:
-                    return Double.valueOf(((Number) arg).doubleValue());
-                case FLOAT:
-                    return Float.valueOf(((Number) arg).floatValue());
-                case INT:
-                    return Integer.valueOf(((Number) arg).intValue());
-                case SHORT:
-                    return Short.valueOf(((Number) arg).shortValue());
-                case BYTE:
-                    return Byte.valueOf(((Number) arg).byteValue());
-                case LONG:
-                    return Long.valueOf(((Number) arg).longValue());
-                default:
-                    throw new SimilarityComputationException("Ill-formed widening value " + valueString + ".");
-                }
+            final int index;
+            if (indexExpression.getType() == INT) {
+                //no boxing
+                index = (int) indexExpression.evalLong(candidateObjects, candidateBackbone, constants, cache);
             } else {
-                throw new SimilarityComputationException("Ill-formed widening value " + valueString + ".");
-            }
-        }
-
-        //NarrowingConversion
-        if (valueString.startsWith("NARROW-")) {
-            final char destinationType = valueString.charAt("NARROW-".length());
-            final String argString = valueString.substring("NARROW-X(".length(), valueString.length() - 1);
-            final Object arg = eval(argString, candidateObjects, candidateBackbone, constants, cache);
-            if (arg instanceof Number) {
-                switch (destinationType) {
-                case DOUBLE:
-                    return Double.valueOf(((Number) arg).doubleValue());
-                case FLOAT:
-                    return Float.valueOf(((Number) arg).floatValue());
-                case INT:
-                    return Integer.valueOf(((Number) arg).intValue());
-                case SHORT:
-                    return Short.valueOf(((Number) arg).shortValue());
-                case BYTE:
-                    return Byte.valueOf(((Number) arg).byteValue());
-                case LONG:
-                    return Long.valueOf(((Number) arg).longValue());
-                default:
-                    throw new SimilarityComputationException("Ill-formed narrowing value " + valueString + ".");
+                final Object value = indexExpression.eval(candidateObjects, candidateBackbone, constants, cache);
+                if (value instanceof Integer) {
+                    index = ((Integer) value).intValue();
+                } else {
+                    throw new SimilarityComputationException("Unexpected array access with noninteger index " + this.indexString + ".");			
                 }
-            } else {
-                throw new SimilarityComputationException("Ill-formed narrowing value " + valueString + ".");
             }
-        }
-
-        //Null
-        if ("null".equals(valueString)) {
-            return null;
-        }
-
-        //Any, DefaultValue, ReferenceArrayImmaterial
-        if ("*".equals(valueString) || "<DEFAULT>".equals(valueString) || valueString.startsWith("{R[")) {
-            throw new SimilarityComputationException("Found Any, DefaultValue, or ReferenceArrayImmaterial value: " + valueString + ".");
-        }
-
-        //ReferenceConcrete
-        if (valueString.startsWith("Object[")) {
-            //TODO support concrete references to constant objects other than Strings
             try {
-                final Long heapPos = Long.parseLong(valueString.substring(valueString.indexOf('[') + 1, valueString.length() - 1));
-                if (constants.containsKey(heapPos)) {
-                    return constants.get(heapPos);
-                } else {
-                    throw new ObjectNotInCandidateException("Found ReferenceConcrete value: " + valueString + ", not corresponding to any literal.");
-                }
-            } catch (NumberFormatException e) {
-                throw new SimilarityComputationException("Unexpected invalid concrete object value: " + valueString + ".");
+                return Array.get(obj, index);
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new FieldNotInCandidateException();
             }
         }
-
-        //Expression
-        int nestingLevel = 0;
-        boolean isUnary = false;
-        int beginArg1 = -1, endArg1 = -1, beginArg2 = -1, endArg2 = -1;
-        int beginOperator = -1, endOperator = -1;
-        for (int i = 0; i < valueString.length(); ++i) {
-            final char currentChar = valueString.charAt(i);
-            if (i == 0) {
-                isUnary = (currentChar != '('); 
-            }
-            if (currentChar == '(') {
-                if (nestingLevel == 0) {
-                    if (beginArg1 == -1) {
-                        beginArg1 = i;
-                    } else {
-                        beginArg2 = i;
-                    }
-                }
-                ++nestingLevel;
-            } else if (currentChar == ')') {
-                if (nestingLevel == 1) {
-                    if (endArg1 == -1) {
-                        endArg1 = i;
-                    } else {
-                        endArg2 = i;
-                    }
-                }
-                --nestingLevel;
-            } else if (nestingLevel == 0) {
-                if (beginOperator == -1) {
-                    beginOperator = i;
-                }
-                endOperator = i + 1;
-            }
-        }
-        if (beginArg1 != -1 && endArg1 != -1 && (isUnary || beginArg2 != -1) && (isUnary || endArg2 != -1) &&
-        beginArg1 < endArg1 && (isUnary || (beginArg2 == endArg1 + (endOperator - beginOperator) + 1 && beginArg2 < endArg2)) &&
-        (!isUnary || (beginOperator == 0 && endOperator == 1)) && (isUnary || (beginOperator < endOperator && endOperator - beginOperator <= 3)) &&
-        (!isUnary || NEG.equals(valueString.substring(beginOperator, endOperator))) &&
-        (isUnary || ADD.equals(valueString.substring(beginOperator, endOperator)) 
-        || SUB.equals(valueString.substring(beginOperator, endOperator))
-        || MUL.equals(valueString.substring(beginOperator, endOperator))
-        || DIV.equals(valueString.substring(beginOperator, endOperator))
-        || REM.equals(valueString.substring(beginOperator, endOperator))
-        || SHL.equals(valueString.substring(beginOperator, endOperator))
-        || SHR.equals(valueString.substring(beginOperator, endOperator))
-        || USHR.equals(valueString.substring(beginOperator, endOperator))
-        || ORBW.equals(valueString.substring(beginOperator, endOperator))
-        || ANDBW.equals(valueString.substring(beginOperator, endOperator))
-        || XORBW.equals(valueString.substring(beginOperator, endOperator)))) {
-            //it is an expression
-            final String operatorString = valueString.substring(beginOperator, endOperator);
-            if (isUnary) {
-                final String argString = valueString.substring(beginArg1 + 1, endArg1 - 1); //trim parentheses
-                final Object arg = eval(argString, candidateObjects, candidateBackbone, constants, cache);
-                if (NEG.equals(operatorString)) {
-                    if (arg instanceof Byte) {
-                        return Byte.valueOf((byte) - ((Byte) arg).byteValue());
-                    } else if (arg instanceof Double) {
-                        return Double.valueOf(- ((Double) arg).doubleValue());
-                    } else if (arg instanceof Float) {
-                        return Float.valueOf(- ((Float) arg).floatValue());
-                    } else if (arg instanceof Integer) {
-                        return Integer.valueOf(- ((Integer) arg).intValue());
-                    } else if (arg instanceof Long) {
-                        return Long.valueOf(- ((Long) arg).longValue());
-                    } else if (arg instanceof Short) {
-                        return Short.valueOf((short) - ((Short) arg).shortValue());
-                    } else {
-                        throw new SimilarityComputationException("Found an arithmetic negation whose operand has wrong type: " + valueString + ".");
-                    }
-                } else {
-                    throw new RuntimeException("Internal error: unreachable case reached (possibly unforeseen or badly detected expected operator); operator: " + operatorString + ".");
-                }
-            } else {
-                final String arg1String = valueString.substring(beginArg1 + 1, endArg1); //trim parentheses
-                final String arg2String = valueString.substring(beginArg2 + 1, endArg2); //trim parentheses
-                final Object arg1 = eval(arg1String, candidateObjects, candidateBackbone, constants, cache);
-                final Object arg2 = eval(arg2String, candidateObjects, candidateBackbone, constants, cache);
-                switch (operatorString) {
-                case ADD:
-                    if (arg1 instanceof Byte && arg2 instanceof Byte) {
-                        return Byte.valueOf((byte) (((Byte) arg1).byteValue() + ((Byte) arg2).byteValue()));
-                    } else if (arg1 instanceof Double && arg2 instanceof Double) {
-                        return Double.valueOf(((Double) arg1).doubleValue() + ((Double) arg2).doubleValue());
-                    } else if (arg1 instanceof Float && arg2 instanceof Float) {
-                        return Float.valueOf(((Float) arg1).floatValue() + ((Float) arg2).floatValue());
-                    } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() + ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() + ((Long) arg2).longValue());
-                    } else if (arg1 instanceof Short && arg2 instanceof Short) {
-                        return Short.valueOf((short) (((Short) arg1).shortValue() + ((Short) arg2).shortValue()));
-                    } else {
-                        throw new SimilarityComputationException("Found a sum whose operands have different types: " + valueString + ".");
-                    }
-                case SUB:
-                    if (arg1 instanceof Byte && arg2 instanceof Byte) {
-                        return Byte.valueOf((byte) (((Byte) arg1).byteValue() - ((Byte) arg2).byteValue()));
-                    } else if (arg1 instanceof Double && arg2 instanceof Double) {
-                        return Double.valueOf(((Double) arg1).doubleValue() - ((Double) arg2).doubleValue());
-                    } else if (arg1 instanceof Float && arg2 instanceof Float) {
-                        return Float.valueOf(((Float) arg1).floatValue() - ((Float) arg2).floatValue());
-                    } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() - ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() - ((Long) arg2).longValue());
-                    } else if (arg1 instanceof Short && arg2 instanceof Short) {
-                        return Short.valueOf((short) (((Short) arg1).shortValue() - ((Short) arg2).shortValue()));
-                    } else {
-                        throw new SimilarityComputationException("Found a subtraction whose operands have different types: " + valueString + ".");
-                    }
-                case MUL:
-                    if (arg1 instanceof Byte && arg2 instanceof Byte) {
-                        return Byte.valueOf((byte) (((Byte) arg1).byteValue() * ((Byte) arg2).byteValue()));
-                    } else if (arg1 instanceof Double && arg2 instanceof Double) {
-                        return Double.valueOf(((Double) arg1).doubleValue() * ((Double) arg2).doubleValue());
-                    } else if (arg1 instanceof Float && arg2 instanceof Float) {
-                        return Float.valueOf(((Float) arg1).floatValue() * ((Float) arg2).floatValue());
-                    } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() * ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() * ((Long) arg2).longValue());
-                    } else if (arg1 instanceof Short && arg2 instanceof Short) {
-                        return Short.valueOf((short) (((Short) arg1).shortValue() * ((Short) arg2).shortValue()));
-                    } else {
-                        throw new SimilarityComputationException("Found a multiplication whose operands have different types: " + valueString + ".");
-                    }
-                case DIV:
-                    if (arg1 instanceof Byte && arg2 instanceof Byte) {
-                        return Byte.valueOf((byte) (((Byte) arg1).byteValue() / ((Byte) arg2).byteValue()));
-                    } else if (arg1 instanceof Double && arg2 instanceof Double) {
-                        return Double.valueOf(((Double) arg1).doubleValue() * ((Double) arg2).doubleValue());
-                    } else if (arg1 instanceof Float && arg2 instanceof Float) {
-                        return Float.valueOf(((Float) arg1).floatValue() * ((Float) arg2).floatValue());
-                    } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() * ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() * ((Long) arg2).longValue());
-                    } else if (arg1 instanceof Short && arg2 instanceof Short) {
-                        return Short.valueOf((short) (((Short) arg1).shortValue() * ((Short) arg2).shortValue()));
-                    } else {
-                        throw new SimilarityComputationException("Found a division whose operands have different types: " + valueString + ".");
-                    }
-                case REM:
-                    if (arg1 instanceof Byte && arg2 instanceof Byte) {
-                        return Byte.valueOf((byte) (((Byte) arg1).byteValue() % ((Byte) arg2).byteValue()));
-                    } else if (arg1 instanceof Double && arg2 instanceof Double) {
-                        return Double.valueOf(((Double) arg1).doubleValue() % ((Double) arg2).doubleValue());
-                    } else if (arg1 instanceof Float && arg2 instanceof Float) {
-                        return Float.valueOf(((Float) arg1).floatValue() % ((Float) arg2).floatValue());
-                    } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() % ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() % ((Long) arg2).longValue());
-                    } else if (arg1 instanceof Short && arg2 instanceof Short) {
-                        return Short.valueOf((short) (((Short) arg1).shortValue() % ((Short) arg2).shortValue()));
-                    } else {
-                        throw new SimilarityComputationException("Found a remainder whose operands have different types: " + valueString + ".");
-                    }
-                case SHL:
-                    if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() << ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Integer) {
-                        return Long.valueOf(((Long) arg1).longValue() << ((Integer) arg2).intValue());
-                    } else {
-                        throw new SimilarityComputationException("Found a left shift whose operands have wrong types: " + valueString + ".");
-                    }
-                case SHR:
-                    if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() >> ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Integer) {
-                        return Long.valueOf(((Long) arg1).longValue() >> ((Integer) arg2).intValue());
-                    } else {
-                        throw new SimilarityComputationException("Found an arithmetic right shift whose operands have wrong types: " + valueString + ".");
-                    }
-                case USHR:
-                    if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() >>> ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Integer) {
-                        return Long.valueOf(((Long) arg1).longValue() >>> ((Integer) arg2).intValue());
-                    } else {
-                        throw new SimilarityComputationException("Found a logical right shift whose operands have wrong types: " + valueString + ".");
-                    }
-                case ORBW:
-                    if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() | ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() | ((Long) arg2).longValue());
-                    } else {
-                        throw new SimilarityComputationException("Found a bitwise or whose operands have wrong types: " + valueString + ".");
-                    }
-                case ANDBW:
-                    if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() & ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() & ((Long) arg2).longValue());
-                    } else {
-                        throw new SimilarityComputationException("Found a bitwise and whose operands have wrong types: " + valueString + ".");
-                    }
-                case XORBW:
-                    if (arg1 instanceof Integer && arg2 instanceof Integer) {
-                        return Integer.valueOf(((Integer) arg1).intValue() ^ ((Integer) arg2).intValue());
-                    } else if (arg1 instanceof Long && arg2 instanceof Long) {
-                        return Long.valueOf(((Long) arg1).longValue() ^ ((Long) arg2).longValue());
-                    } else {
-                        throw new SimilarityComputationException("Found a bitwise xor whose operands have wrong types: " + valueString + ".");
-                    }
-                default:
-                    throw new RuntimeException("Internal error: unreachable case reached (possibly unforeseen or badly detected expected operator); operator: " + operatorString + ".");
-                }
-            }
-        } //else, fall through
-
-        //PrimitiveSymbolicAtomic, PrimitiveSymbolicApply, ReferenceSymbolic: retrieve
-        return candidateBackbone.retrieveOrVisitField(valueString, candidateObjects, constants, cache);
     }
 }
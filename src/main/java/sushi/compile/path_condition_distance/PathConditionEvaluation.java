@@ -0,0 +1,174 @@
+package sushi.compile.path_condition_distance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import sushi.logging.Logger;
+
+/**
+ * The evaluation of a candidate against a path condition, that records
+ * for each clause its similarity, the roots it read and what it added
+ * to the {@link CandidateBackbone}. It allows to compute the distance
+ * of another candidate that differs from the evaluated one only in some
+ * roots by reevaluating only the clauses that might be affected by the
+ * difference.
+ *
+ * @see DistanceBySimilarityWithPathCondition#evaluate(List, Map, Map, ClassLoader, SushiLibCache)
+ * @see DistanceBySimilarityWithPathCondition#evaluate(PathConditionEvaluation, Map, Set, Map, ClassLoader, SushiLibCache)
+ */
+public final class PathConditionEvaluation {
+    private static final Logger logger = new Logger(PathConditionEvaluation.class);
+
+    private final List<ClauseSimilarityHandler> pathConditionSimilarityHandlers;
+    private final ClauseInfo[] clauseInfos;
+    private final double[] similarities;
+    private final CandidateBackbone.Footprint[] footprints;
+    private final boolean[][] invalidDependedOrigins;
+    private final double distance;
+    private final int reevaluatedClauses;
+
+    private PathConditionEvaluation(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, ClauseInfo[] clauseInfos,
+                                    double[] similarities, CandidateBackbone.Footprint[] footprints, boolean[][] invalidDependedOrigins,
+                                    int reevaluatedClauses) {
+        this.pathConditionSimilarityHandlers = pathConditionSimilarityHandlers;
+        this.clauseInfos = clauseInfos;
+        this.similarities = similarities;
+        this.footprints = footprints;
+        this.invalidDependedOrigins = invalidDependedOrigins;
+        this.reevaluatedClauses = reevaluatedClauses;
+        double achievedSimilarity = 0.0d;
+        for (double similarity : similarities) {
+            achievedSimilarity += similarity;
+        }
+        this.distance = similarities.length - achievedSimilarity;
+        assert (this.distance >= 0);
+    }
+
+    /**
+     * Returns the distance of the evaluated candidate from the path condition.
+     *
+     * @return a {@code double}.
+     */
+    public double getDistance() {
+        return this.distance;
+    }
+
+    /**
+     * Returns how many clauses were evaluated (rather than reused
+     * from a previous evaluation) to build this evaluation.
+     *
+     * @return an {@code int}.
+     */
+    public int getReevaluatedClauses() {
+        return this.reevaluatedClauses;
+    }
+
+    static PathConditionEvaluation evaluate(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, Map<String, Object> candidateObjects,
+                                            Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+        final List<ClauseSimilarityHandler> handlers = Collections.unmodifiableList(new ArrayList<>(pathConditionSimilarityHandlers));
+        final ClauseInfo[] clauseInfos = new ClauseInfo[handlers.size()];
+        for (int i = 0; i < clauseInfos.length; ++i) {
+            clauseInfos[i] = new ClauseInfo(handlers.get(i));
+        }
+        return evaluate(handlers, clauseInfos, null, candidateObjects, null, constants, classLoader, cache);
+    }
+
+    static PathConditionEvaluation evaluate(PathConditionEvaluation previous, Map<String, Object> candidateObjects, Set<String> changedRoots,
+                                            Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+        return evaluate(previous.pathConditionSimilarityHandlers, previous.clauseInfos, previous, candidateObjects, changedRoots, constants, classLoader, cache);
+    }
+
+    private static PathConditionEvaluation evaluate(List<ClauseSimilarityHandler> pathConditionSimilarityHandlers, ClauseInfo[] clauseInfos,
+                                                    PathConditionEvaluation previous, Map<String, Object> candidateObjects, Set<String> changedRoots,
+                                                    Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache) {
+        logger.debug("Computing similarity with path condition (incremental): ");
+
+        final int size = clauseInfos.length;
+        final double[] similarities = new double[size];
+        final CandidateBackbone.Footprint[] footprints = new CandidateBackbone.Footprint[size];
+        final boolean[][] invalidDependedOrigins = new boolean[size][];
+        final CandidateBackbone backbone = new CandidateBackbone(classLoader);
+        int reevaluatedClauses = 0;
+        for (int i = 0; i < size; ++i) {
+            final ClauseInfo clauseInfo = clauseInfos[i];
+            invalidDependedOrigins[i] = clauseInfo.invalidDependedOrigins(backbone);
+            final boolean reevaluate = (previous == null || clauseInfo.roots == null ||
+                                        changedRoots == null || !Collections.disjoint(clauseInfo.roots, changedRoots) ||
+                                        (clauseInfo.dependsOnVisitOrder && reevaluatedClauses > 0) ||
+                                        !Arrays.equals(invalidDependedOrigins[i], previous.invalidDependedOrigins[i]));
+            if (reevaluate) {
+                backbone.startRecording();
+                similarities[i] = pathConditionSimilarityHandlers.get(i).evaluateSimilarity(backbone, candidateObjects, constants, cache);
+                footprints[i] = backbone.stopRecording();
+                ++reevaluatedClauses;
+            } else {
+                similarities[i] = previous.similarities[i];
+                footprints[i] = previous.footprints[i];
+                backbone.replay(footprints[i]);
+            }
+        }
+
+        final PathConditionEvaluation retVal = new PathConditionEvaluation(pathConditionSimilarityHandlers, clauseInfos, similarities, footprints, invalidDependedOrigins, reevaluatedClauses);
+        logger.debug("Distance from path condition is " + retVal.distance + ", reevaluated " + reevaluatedClauses + " clauses out of " + size);
+        return retVal;
+    }
+
+    /**
+     * What is known before the evaluation about the dependencies of a clause.
+     */
+    private static final class ClauseInfo {
+        /**
+         * The roots of the origins the clause reads, or {@code null} if
+         * it (possibly) reads something else, e.g., static fields.
+         */
+        final Set<String> roots;
+
+        /** The prefixes of the origins the clause reads. */
+        final String[] dependedOrigins;
+
+        /** Whether the clause reads the order of visit of the objects. */
+        final boolean dependsOnVisitOrder;
+
+        ClauseInfo(ClauseSimilarityHandler handler) {
+            this.dependsOnVisitOrder = (handler instanceof SimilarityWithRef && ((SimilarityWithRef) handler).dependsOnVisitOrder());
+            final Collection<String> origins = handler.getOrigins();
+            Set<String> roots = new HashSet<>();
+            final Set<String> dependedOrigins = new HashSet<>();
+            if (origins == null) {
+                roots = null;
+            } else {
+                for (String origin : origins) {
+                    final ParsedOrigin parsedOrigin;
+                    try {
+                        parsedOrigin = new ParsedOrigin(origin);
+                    } catch (SimilarityComputationException e) {
+                        roots = null;
+                        break;
+                    }
+                    if (parsedOrigin.getRoot() == null || parsedOrigin.readsOtherOrigins()) {
+                        roots = null;
+                        break;
+                    }
+                    roots.add(parsedOrigin.getRoot());
+                    dependedOrigins.addAll(parsedOrigin.getDependedOrigins());
+                }
+            }
+            this.roots = roots;
+            this.dependedOrigins = dependedOrigins.toArray(new String[0]);
+        }
+
+        boolean[] invalidDependedOrigins(CandidateBackbone backbone) {
+            final boolean[] retVal = new boolean[this.dependedOrigins.length];
+            for (int i = 0; i < retVal.length; ++i) {
+                retVal[i] = backbone.getInvalidFieldPaths().contains(this.dependedOrigins[i]);
+            }
+            return retVal;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package sushi.compile.path_condition_distance;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares that a method is pure, i.e., that it has no side effects and 
+ * that, when invoked twice on the same arguments during the evaluation of 
+ * a candidate, it returns the same result. The invocations of pure methods 
+ * in the origins are memoized for the whole evaluation of a candidate. 
+ * 
+ * @see SushiLibCache#addPureMethods(java.util.Collection)
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface PureMethod {
+}
@@ -15,4 +15,8 @@ public class SimilarityComputationException extends RuntimeException {
 		super(message, e);
 	}
 
+	public SimilarityComputationException(String message, Throwable e) {
+		super(message, e);
+	}
+
 }
@@ -3,6 +3,7 @@ package sushi.compile.path_condition_distance;
 import static sushi.compile.path_condition_distance.InverseDistances.inverseDistanceRatio;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Map;
 
 import sushi.logging.Logger;
@@ -44,4 +45,13 @@ public class SimilarityWithNumericExpression implements ClauseSimilarityHandler
 	    logger.debug("Similarity increases by: " + similarity);
 	    return similarity;
 	}
+
+	@Override
+	public Collection<String> getOrigins() {
+	    final ArrayList<String> origins = new ArrayList<>();
+	    for (String variableOrigin : this.theValueCalculator.getVariableOrigins()) {
+	        origins.add(variableOrigin);
+	    }
+	    return origins;
+	}
 }
@@ -1,5 +1,7 @@
 package sushi.compile.path_condition_distance;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Map;
 
 import sushi.logging.Logger;
@@ -39,5 +41,21 @@ public abstract class SimilarityWithRef implements ClauseSimilarityHandler {
 	    return similarity;
 	}
 
+	@Override
+	public Collection<String> getOrigins() {
+	    return Collections.singletonList(this.theReferenceOrigin);
+	}
+	
+	/**
+	 * Returns whether the similarity depends on the order the origins are 
+	 * visited, i.e., whether {@link #evaluateSimilarity(CandidateBackbone, Object)} 
+	 * invokes {@link CandidateBackbone#getOrigin(Object)}.
+	 * 
+	 * @return {@code false}, overridden by the subclasses that do.
+	 */
+	boolean dependsOnVisitOrder() {
+	    return false;
+	}
+
 	protected abstract double evaluateSimilarity(CandidateBackbone backbone, Object referredObject);
 }
@@ -1,5 +1,8 @@
 package sushi.compile.path_condition_distance;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 import sushi.logging.Logger;
 
 public class SimilarityWithRefNotAlias extends SimilarityWithRef {
@@ -15,6 +18,11 @@ public class SimilarityWithRefNotAlias extends SimilarityWithRef {
 		this.theAliasOrigin = theAliasOrigin;
 	}
 
+	@Override
+	public Collection<String> getOrigins() {
+		return Arrays.asList(this.theReferenceOrigin, this.theAliasOrigin);
+	}
+
 	protected double evaluateSimilarity(CandidateBackbone backbone, Object referredObject) {
 		//logger.debug("Ref that do not alias another ref");
 		
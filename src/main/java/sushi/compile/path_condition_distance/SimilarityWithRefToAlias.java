@@ -1,5 +1,8 @@
 package sushi.compile.path_condition_distance;
 
+import java.util.Arrays;
+import java.util.Collection;
+
 import sushi.compile.distance.EdgeDistance;
 import sushi.logging.Logger;
 
@@ -16,6 +19,16 @@ public class SimilarityWithRefToAlias extends SimilarityWithRef {
 		this.theAliasOrigin = theAliasOrigin;
 	}
 
+	@Override
+	public Collection<String> getOrigins() {
+		return Arrays.asList(this.theReferenceOrigin, this.theAliasOrigin);
+	}
+
+	@Override
+	boolean dependsOnVisitOrder() {
+		return true;
+	}
+
 	@Override
 	protected double evaluateSimilarity(CandidateBackbone backbone, Object referredObject) {
 		logger.debug("Ref that aliases another ref");
@@ -27,6 +27,11 @@ public class SimilarityWithRefToFreshObject extends SimilarityWithRef {
 		this.theForbiddenClasses = theforbiddenClasses;
 	}
 
+	@Override
+	boolean dependsOnVisitOrder() {
+		return true;
+	}
+
 	@Override
 	protected double evaluateSimilarity(CandidateBackbone backbone, Object referredObject) {
 		logger.debug("Ref to a fresh object");
@@ -10,6 +10,11 @@ public class SimilarityWithRefToFreshObjectAnyClass extends SimilarityWithRef {
 	    super(theReferenceOrigin);
 	}
 
+	@Override
+	boolean dependsOnVisitOrder() {
+		return true;
+	}
+
 	@Override
 	protected double evaluateSimilarity(CandidateBackbone backbone, Object referredObject) {
 	    logger.debug("Ref to a fresh object (without considering of possible diversity of type)");
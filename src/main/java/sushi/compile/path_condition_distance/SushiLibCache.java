@@ -1,26 +1,305 @@
 package sushi.compile.path_condition_distance;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 public class SushiLibCache {
-    private final Map<String, ParsedOrigin> parsedOrigins = new HashMap<>();
+    /** The maximum size of an unbounded cache. */
+    public static final int UNBOUNDED = Integer.MAX_VALUE;
 
-    /* The following variables are used only for profiling purposes:
-	int attempts = 0;
-	int partialHits = 0;
-	int hits = 0;
-	int misses = 0;
-	int nextOutputAtAttempt = 100; */
+    private final OriginAccessBackend backend;
+    private final boolean concurrent;
+    private final int maximumSize;
+    private final Map<String, ParsedOrigin> parsedOrigins;
+    private final Map<String, ValueExpression> valueExpressions;
+    private final Set<String> pureMethods = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final OriginSymbolTable symbols = new OriginSymbolTable();
 
-    public SushiLibCache() { }
+    //statistics
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder partialHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
 
+    public SushiLibCache() { 
+        this(OriginAccessBackend.REFLECTION);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param backend the {@link OriginAccessBackend} that the origins 
+     *        parsed by this cache use to access the candidate objects.
+     */
+    public SushiLibCache(OriginAccessBackend backend) {
+        this(backend, false);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param backend the {@link OriginAccessBackend} that the origins 
+     *        parsed by this cache use to access the candidate objects.
+     * @param concurrent if {@code true} the cache can be shared by 
+     *        threads that evaluate candidates in parallel (each with 
+     *        its own {@link CandidateBackbone}); lookups of origins 
+     *        already in the cache do not lock.
+     */
+    public SushiLibCache(OriginAccessBackend backend, boolean concurrent) {
+        this(backend, concurrent, UNBOUNDED);
+    }
+
+    /**
+     * Constructor.
+     * 
+     * @param backend the {@link OriginAccessBackend} that the origins 
+     *        parsed by this cache use to access the candidate objects.
+     * @param concurrent if {@code true} the cache can be shared by 
+     *        threads that evaluate candidates in parallel (each with 
+     *        its own {@link CandidateBackbone}). Lookups in an unbounded
+     *        concurrent cache do not lock, lookups in a bounded one do, 
+     *        and new origins are compiled holding the lock (see 
+     *        {@link #getParsedOrigin(String, ClassLoader)}).
+     * @param maximumSize a positive {@code int}, the maximum number of 
+     *        origins (and of values in the origins) the cache keeps. 
+     *        When it is full the least recently used ones are evicted, 
+     *        so that a long-running process that evaluates many distinct
+     *        path conditions does not keep forever all their origins, 
+     *        and the classes these refer to. {@link #UNBOUNDED} for no limit.
+     *        The identifiers of an evicted origin and of its prefixes are 
+     *        released, and later reused, once nothing else references the 
+     *        origin; until then, e.g., while a {@link CandidateBackbone} 
+     *        keeps its visit, they stay in the cache's table of identifiers. 
+     *        So the table has at most as many origins as the cached origins 
+     *        and their prefixes, plus those that are still referenced. 
+     *        Released origins leave the table when the next new origin 
+     *        is added to it. The methods declared by 
+     *        {@link #addPureMethods(Collection)} are never evicted.
+     */
+    public SushiLibCache(OriginAccessBackend backend, boolean concurrent, int maximumSize) {
+        if (backend == null) {
+            throw new SimilarityComputationException("Origin access backend cannot be null");
+        }
+        if (maximumSize <= 0) {
+            throw new SimilarityComputationException("Maximum size of the cache must be positive, but it is " + maximumSize);
+        }
+        this.backend = backend;
+        this.concurrent = concurrent;
+        this.maximumSize = maximumSize;
+        this.parsedOrigins = makeMap(concurrent, maximumSize, this.evictions);
+        this.valueExpressions = makeMap(concurrent, maximumSize, null);
+    }
+
+    private static <V> Map<String, V> makeMap(boolean concurrent, int maximumSize, LongAdder evictions) {
+        if (maximumSize == UNBOUNDED) {
+            return (concurrent ? new ConcurrentHashMap<>() : new HashMap<>());
+        }
+        final Map<String, V> lru = new LinkedHashMap<String, V>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                if (size() > maximumSize) {
+                    if (evictions != null) {
+                        evictions.increment();
+                    }
+                    return true;
+                }
+                return false;
+            }
+        };
+        return (concurrent ? Collections.synchronizedMap(lru) : lru);
+    }
+
+    public OriginAccessBackend getBackend() {
+        return this.backend;
+    }
+    
+    /**
+     * Returns the identifiers of the origins parsed by this cache,
+     * and of those that are still referenced after eviction.
+     * 
+     * @return an {@link OriginSymbolTable}.
+     */
+    OriginSymbolTable getSymbols() {
+        return this.symbols;
+    }
+
+    public boolean isConcurrent() {
+        return this.concurrent;
+    }
+
+    public int getMaximumSize() {
+        return this.maximumSize;
+    }
+
+    /**
+     * Returns the number of origins in the cache.
+     * 
+     * @return an {@code int}.
+     */
+    public int size() {
+        return this.parsedOrigins.size();
+    }
+
+    /**
+     * Returns the number of lookups of origins that found 
+     * the origin in the cache, already compiled.
+     * 
+     * @return a {@code long}.
+     */
+    public long getHits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of lookups of origins that found 
+     * the origin in the cache, parsed but not yet compiled.
+     * 
+     * @return a {@code long}.
+     */
+    public long getPartialHits() {
+        return this.partialHits.sum();
+    }
+
+    /**
+     * Returns the number of lookups of origins that did not 
+     * find the origin in the cache.
+     * 
+     * @return a {@code long}.
+     */
+    public long getMisses() {
+        return this.misses.sum();
+    }
+
+    /**
+     * Returns the number of origins evicted from the cache 
+     * because it was full.
+     * 
+     * @return a {@code long}.
+     */
+    public long getEvictions() {
+        return this.evictions.sum();
+    }
+
+    /**
+     * Returns a {@link ParsedOrigin}, not necessarily compiled.
+     * 
+     * @param origin a {@link String}, the origin.
+     * @return the {@link ParsedOrigin} for {@code origin}.
+     */
     public ParsedOrigin getParsedOrigin(String origin)  {
-        if (!this.parsedOrigins.containsKey(origin)) {
-            final ParsedOrigin newCachedOrigin = new ParsedOrigin(origin);
-            this.parsedOrigins.put(origin, newCachedOrigin);
+        final ParsedOrigin cachedOrigin = this.parsedOrigins.get(origin);
+        if (cachedOrigin != null) {
+            if (cachedOrigin.isCompiled()) {
+                this.hits.increment();
+            } else {
+                this.partialHits.increment();
+            }
+            return cachedOrigin;
+        }
+        this.misses.increment();
+        return this.parsedOrigins.computeIfAbsent(origin, o -> new ParsedOrigin(o, this.backend, this.symbols));
+    }
+
+    /**
+     * Returns a compiled {@link ParsedOrigin}. When a new origin is added
+     * to the cache it is compiled before being made visible to the 
+     * other threads. In a bounded concurrent cache it is compiled while 
+     * holding the lock of the whole cache, so the other threads wait for 
+     * the compilation even to look up other origins; use 
+     * {@link #precompile(Collection, ClassLoader) precompile} to compile 
+     * the origins ahead of a parallel evaluation.
+     * 
+     * @param origin a {@link String}, the origin.
+     * @param classLoader the {@link ClassLoader} used to resolve the classes 
+     *        mentioned in the origin, if it must be compiled.
+     * @return the compiled {@link ParsedOrigin} for {@code origin}.
+     * @throws SimilarityComputationException if {@code origin} is ill-formed or
+     *         refers to classes, fields or methods that do not exist.
+     */
+    public ParsedOrigin getParsedOrigin(String origin, ClassLoader classLoader)  {
+        final ParsedOrigin cachedOrigin = this.parsedOrigins.get(origin);
+        if (cachedOrigin != null) {
+            if (cachedOrigin.isCompiled()) {
+                this.hits.increment();
+                return cachedOrigin;
+            }
+            this.partialHits.increment();
+            return cachedOrigin.compile(classLoader);
+        }
+        this.misses.increment();
+        return this.parsedOrigins.computeIfAbsent(origin, o -> new ParsedOrigin(o, this.backend, this.symbols).compile(classLoader));
+    }
+
+    /**
+     * Returns a compiled value, i.e., an array index or a 
+     * method invocation parameter in an origin.
+     * 
+     * @param valueString a {@link String}, the value.
+     * @return the {@link ValueExpression} for {@code valueString}.
+     */
+    ValueExpression getValueExpression(String valueString) {
+        if (valueString == null) {
+            return ValueExpression.compile(null); //it fails; concurrent maps do not accept null keys
+        }
+        final ValueExpression cachedExpression = this.valueExpressions.get(valueString);
+        if (cachedExpression != null) {
+            return cachedExpression;
+        }
+        return this.valueExpressions.computeIfAbsent(valueString, ValueExpression::compile);
+    }
+
+    /**
+     * Declares some methods as pure, as if they were annotated with 
+     * {@link PureMethod}. Their invocations in the origins are memoized 
+     * for the whole evaluation of a candidate, i.e., they are invoked 
+     * at most once for each combination of arguments. The methods can be 
+     * declared at any time: a method declared while a candidate is being 
+     * evaluated is memoized from its next invocation on.
+     * 
+     * @param methodSignatures a {@link Collection}{@code <}{@link String}{@code >}, 
+     *        the signatures of the methods in the format 
+     *        <em>class name</em>{@code :}<em>descriptor</em>{@code :}<em>method name</em>
+     *        they have in the origins, e.g., {@code java/lang/String:()I:hashCode}.
+     */
+    public void addPureMethods(Collection<String> methodSignatures) {
+        this.pureMethods.addAll(methodSignatures);
+    }
+
+    /**
+     * Checks whether a method was declared pure by {@link #addPureMethods(Collection)}.
+     * The methods annotated with {@link PureMethod} are pure as well.
+     * 
+     * @param methodSignature the signature of the method, 
+     *        as in {@link #addPureMethods(Collection)}.
+     * @return {@code true} iff the method was declared pure by 
+     *         {@link #addPureMethods(Collection)}.
+     */
+    boolean isDeclaredPureMethod(String methodSignature) {
+        return this.pureMethods.contains(methodSignature);
+    }
+
+    /**
+     * Parses and compiles a set of origins ahead of their evaluation, 
+     * so that the first candidates evaluated do not pay for it.
+     * 
+     * @param origins a {@link Collection}{@code <}{@link String}{@code >} of origins.
+     * @param classLoader the {@link ClassLoader} used to resolve the classes 
+     *        mentioned in the origins.
+     * @throws SimilarityComputationException if some origin is ill-formed or
+     *         refers to classes, fields or methods that do not exist.
+     */
+    public void precompile(Collection<String> origins, ClassLoader classLoader) {
+        for (String origin : origins) {
+            getParsedOrigin(origin, classLoader);
         }
-        return this.parsedOrigins.get(origin);
     }
 
 }
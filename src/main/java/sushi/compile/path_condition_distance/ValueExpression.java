@@ -0,0 +1,856 @@
+package sushi.compile.path_condition_distance;
+
+import static sushi.util.TypeUtils.BYTE;
+import static sushi.util.TypeUtils.DOUBLE;
+import static sushi.util.TypeUtils.FLOAT;
+import static sushi.util.TypeUtils.INT;
+import static sushi.util.TypeUtils.LONG;
+import static sushi.util.TypeUtils.SHORT;
+
+import java.util.Map;
+
+/**
+ * A value (array index or method invocation parameter) in an origin,
+ * compiled from its string representation to an expression tree, so
+ * that it can be evaluated many times without parsing it again.
+ * The evaluation has exactly the same semantics of the evaluation of
+ * the string representation, included the exceptions that ill-formed
+ * values raise, that are raised when (and only if) the ill-formed
+ * subexpression is evaluated.
+ * 
+ * The expressions whose type is known at compile time (because of the 
+ * literal suffixes and of the widening and narrowing tags) can also be 
+ * evaluated into a {@code long} (if integral) or {@code double} (if 
+ * floating point) without boxing the intermediate values.
+ */
+abstract class ValueExpression {
+    /** The type of the expressions whose type is known only at evaluation time. */
+    static final char UNKNOWN = '?';
+
+    private static final String ADD   = "+";
+    private static final String SUB   = "-";
+    private static final String MUL   = "*";
+    private static final String DIV   = "/";
+    private static final String REM   = "%";
+    private static final String SHL   = "<<";
+    private static final String SHR   = ">>";
+    private static final String USHR  = ">>>";
+    private static final String ORBW  = "|";
+    private static final String ANDBW = "&";
+    private static final String XORBW = "^";
+    private static final String NEG   = "~";
+
+    /**
+     * Evaluates this expression.
+     *
+     * @return the value of this expression, boxed.
+     */
+    abstract Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+    throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException;
+
+    /**
+     * Returns the type of this expression.
+     * 
+     * @return one of {@link sushi.util.TypeUtils#BYTE BYTE}, {@link sushi.util.TypeUtils#SHORT SHORT}, 
+     *         {@link sushi.util.TypeUtils#INT INT}, {@link sushi.util.TypeUtils#LONG LONG}, 
+     *         {@link sushi.util.TypeUtils#FLOAT FLOAT}, {@link sushi.util.TypeUtils#DOUBLE DOUBLE}
+     *         if the value of this expression, when its evaluation succeeds, is 
+     *         always of that primitive type, otherwise {@link #UNKNOWN}. 
+     */
+    char getType() {
+        return UNKNOWN;
+    }
+
+    /**
+     * Evaluates this expression, whose type must be integral.
+     * 
+     * @return the value of this expression.
+     */
+    long evalLong(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+    throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+        return ((Number) eval(candidateObjects, candidateBackbone, constants, cache)).longValue();
+    }
+
+    /**
+     * Evaluates this expression, whose type must be floating point.
+     * 
+     * @return the value of this expression.
+     */
+    double evalDouble(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+    throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+        return ((Number) eval(candidateObjects, candidateBackbone, constants, cache)).doubleValue();
+    }
+    
+    static boolean isIntegral(char type) {
+        return (type == BYTE || type == SHORT || type == INT || type == LONG);
+    }
+
+    static boolean isFloating(char type) {
+        return (type == FLOAT || type == DOUBLE);
+    }
+    
+    private static char typeOf(Object value) {
+        if (value instanceof Byte) {
+            return BYTE;
+        } else if (value instanceof Short) {
+            return SHORT;
+        } else if (value instanceof Integer) {
+            return INT;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Float) {
+            return FLOAT;
+        } else if (value instanceof Double) {
+            return DOUBLE;
+        } else {
+            return UNKNOWN;
+        }
+    }
+    
+    /**
+     * Boxes the value of an expression of known type.
+     */
+    private static Object box(char type, long longValue, double doubleValue) {
+        switch (type) {
+        case BYTE:
+            return Byte.valueOf((byte) longValue);
+        case SHORT:
+            return Short.valueOf((short) longValue);
+        case INT:
+            return Integer.valueOf((int) longValue);
+        case LONG:
+            return Long.valueOf(longValue);
+        case FLOAT:
+            return Float.valueOf((float) doubleValue);
+        case DOUBLE:
+            return Double.valueOf(doubleValue);
+        default:
+            throw new RuntimeException("Internal error: boxing a value of unknown type " + type + ".");
+        }
+    }
+    
+    /**
+     * Evaluates an expression of known type and boxes its value.
+     */
+    private static Object evalAndBox(ValueExpression expression, Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+    throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+        final char type = expression.getType();
+        if (isIntegral(type)) {
+            return box(type, expression.evalLong(candidateObjects, candidateBackbone, constants, cache), 0.0d);
+        } else {
+            return box(type, 0L, expression.evalDouble(candidateObjects, candidateBackbone, constants, cache));
+        }
+    }
+
+    /**
+     * Compiles a value.
+     *
+     * @param valueString the string representation of the value.
+     * @return the {@link ValueExpression} for {@code valueString}. If
+     *         {@code valueString} is ill-formed, it is an expression whose
+     *         evaluation raises the same exception the evaluation of
+     *         {@code valueString} would raise.
+     */
+    static ValueExpression compile(String valueString) {
+        try {
+            return compileOrThrow(valueString);
+        } catch (RuntimeException e) {
+            return new Failure(valueString);
+        }
+    }
+
+    private static ValueExpression compileOrThrow(String valueString) {
+        if (valueString == null) {
+            throw new SimilarityComputationException("Trying to eval a null String.");
+        }
+
+        //Simplex
+        if ("false".equals(valueString)) {
+            return new Constant(Boolean.FALSE);
+        }
+        if ("true".equals(valueString)) {
+            return new Constant(Boolean.TRUE);
+        }
+        try {
+            return new Constant(Integer.valueOf(Integer.parseInt(valueString)));
+        } catch (NumberFormatException e) {
+            //it is not an int, fall through
+        }
+        if (valueString.endsWith("L")) {
+            try {
+                return new Constant(Long.valueOf(Long.parseLong(valueString.substring(0, valueString.length() - 1))));
+            } catch (NumberFormatException e) {
+                //it is not a long, fall through
+            }
+        }
+        if (valueString.endsWith("f")) {
+            try {
+                return new Constant(Float.valueOf(Float.parseFloat(valueString)));
+            } catch (NumberFormatException e) {
+                //it is not a float, fall through
+            }
+        }
+        if (valueString.endsWith("d")) {
+            try {
+                return new Constant(Double.valueOf(Double.parseDouble(valueString)));
+            } catch (NumberFormatException e) {
+                //it is not a double, fall through
+            }
+        }
+        if (valueString.startsWith("(byte) ")) {
+            try {
+                return new Constant(Byte.valueOf(Byte.parseByte(valueString.substring("(byte) ".length()))));
+            } catch (NumberFormatException e) {
+                throw new SimilarityComputationException("Ill-formed byte value " + valueString + ".");
+            }
+        }
+        if (valueString.startsWith("(short) ")) {
+            try {
+                return new Constant(Short.valueOf(Short.parseShort(valueString.substring("(short) ".length()))));
+            } catch (NumberFormatException e) {
+                throw new SimilarityComputationException("Ill-formed byte value " + valueString + ".");
+            }
+        }
+        if (valueString.startsWith("'") && valueString.endsWith("'")) {
+            if (valueString.length() == 3) {
+                return new Constant(Character.valueOf(valueString.charAt(1)));
+            } else {
+                throw new SimilarityComputationException("Ill-formed char value " + valueString + ".");
+            }
+        }
+
+        //WideningConversion
+        if (valueString.startsWith("WIDEN-")) {
+            final char destinationType = valueString.charAt("WIDEN-".length());
+            final String argString = valueString.substring("WIDEN-X(".length(), valueString.length() - 1);
+            return new Conversion(valueString, "widening", destinationType, compile(argString));
+        }
+
+        //NarrowingConversion
+        if (valueString.startsWith("NARROW-")) {
+            final char destinationType = valueString.charAt("NARROW-".length());
+            final String argString = valueString.substring("NARROW-X(".length(), valueString.length() - 1);
+            return new Conversion(valueString, "narrowing", destinationType, compile(argString));
+        }
+
+        //Null
+        if ("null".equals(valueString)) {
+            return new Constant(null);
+        }
+
+        //Any, DefaultValue, ReferenceArrayImmaterial
+        if ("*".equals(valueString) || "<DEFAULT>".equals(valueString) || valueString.startsWith("{R[")) {
+            throw new SimilarityComputationException("Found Any, DefaultValue, or ReferenceArrayImmaterial value: " + valueString + ".");
+        }
+
+        //ReferenceConcrete
+        if (valueString.startsWith("Object[")) {
+            //TODO support concrete references to constant objects other than Strings
+            try {
+                final long heapPos = Long.parseLong(valueString.substring(valueString.indexOf('[') + 1, valueString.length() - 1));
+                return new ReferenceConcrete(valueString, heapPos);
+            } catch (NumberFormatException e) {
+                throw new SimilarityComputationException("Unexpected invalid concrete object value: " + valueString + ".");
+            }
+        }
+
+        //Expression
+        int nestingLevel = 0;
+        boolean isUnary = false;
+        int beginArg1 = -1, endArg1 = -1, beginArg2 = -1, endArg2 = -1;
+        int beginOperator = -1, endOperator = -1;
+        for (int i = 0; i < valueString.length(); ++i) {
+            final char currentChar = valueString.charAt(i);
+            if (i == 0) {
+                isUnary = (currentChar != '(');
+            }
+            if (currentChar == '(') {
+                if (nestingLevel == 0) {
+                    if (beginArg1 == -1) {
+                        beginArg1 = i;
+                    } else {
+                        beginArg2 = i;
+                    }
+                }
+                ++nestingLevel;
+            } else if (currentChar == ')') {
+                if (nestingLevel == 1) {
+                    if (endArg1 == -1) {
+                        endArg1 = i;
+                    } else {
+                        endArg2 = i;
+                    }
+                }
+                --nestingLevel;
+            } else if (nestingLevel == 0) {
+                if (beginOperator == -1) {
+                    beginOperator = i;
+                }
+                endOperator = i + 1;
+            }
+        }
+        if (beginArg1 != -1 && endArg1 != -1 && (isUnary || beginArg2 != -1) && (isUnary || endArg2 != -1) &&
+        beginArg1 < endArg1 && (isUnary || (beginArg2 == endArg1 + (endOperator - beginOperator) + 1 && beginArg2 < endArg2)) &&
+        (!isUnary || (beginOperator == 0 && endOperator == 1)) && (isUnary || (beginOperator < endOperator && endOperator - beginOperator <= 3))) {
+            final String operatorString = valueString.substring(beginOperator, endOperator);
+            if (isUnary && NEG.equals(operatorString)) {
+                final String argString = valueString.substring(beginArg1 + 1, endArg1 - 1); //trim parentheses
+                return new Negation(valueString, compile(argString));
+            } else if (!isUnary) {
+                final Operator operator = Operator.of(operatorString);
+                if (operator != null) {
+                    final String arg1String = valueString.substring(beginArg1 + 1, endArg1); //trim parentheses
+                    final String arg2String = valueString.substring(beginArg2 + 1, endArg2); //trim parentheses
+                    return new BinaryOperation(valueString, operator, compile(arg1String), compile(arg2String));
+                }
+            }
+        } //else, fall through
+
+        //PrimitiveSymbolicAtomic, PrimitiveSymbolicApply, ReferenceSymbolic: retrieve
+        return new OriginReference(valueString);
+    }
+
+    private static final class Failure extends ValueExpression {
+        private final String valueString;
+
+        Failure(String valueString) {
+            this.valueString = valueString;
+        }
+
+        @Override
+        Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) 
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            //compiles again, so that each evaluation raises its own exception
+            return compileOrThrow(this.valueString).eval(candidateObjects, candidateBackbone, constants, cache);
+        }
+    }
+
+    private static final class Constant extends ValueExpression {
+        private final Object value;
+        private final char type;
+        private final long longValue;
+        private final double doubleValue;
+
+        Constant(Object value) {
+            this.value = value;
+            this.type = typeOf(value);
+            this.longValue = (isIntegral(this.type) ? ((Number) value).longValue() : 0L);
+            this.doubleValue = (isFloating(this.type) ? ((Number) value).doubleValue() : 0.0d);
+        }
+
+        @Override
+        Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) {
+            return this.value;
+        }
+        
+        @Override
+        char getType() {
+            return this.type;
+        }
+        
+        @Override
+        long evalLong(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) {
+            return this.longValue;
+        }
+        
+        @Override
+        double evalDouble(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache) {
+            return this.doubleValue;
+        }
+    }
+
+    private static final class ReferenceConcrete extends ValueExpression {
+        private final String valueString;
+        private final Long heapPos;
+
+        ReferenceConcrete(String valueString, long heapPos) {
+            this.valueString = valueString;
+            this.heapPos = Long.valueOf(heapPos);
+        }
+
+        @Override
+        Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws ObjectNotInCandidateException {
+            if (constants.containsKey(this.heapPos)) {
+                return constants.get(this.heapPos);
+            } else {
+                throw new ObjectNotInCandidateException("Found ReferenceConcrete value: " + this.valueString + ", not corresponding to any literal.");
+            }
+        }
+    }
+
+    private static final class OriginReference extends ValueExpression {
+        private final String origin;
+
+        OriginReference(String origin) {
+            this.origin = origin;
+        }
+
+        @Override
+        Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            return candidateBackbone.retrieveOrVisitField(this.origin, candidateObjects, constants, cache);
+        }
+    }
+
+    private static final class Conversion extends ValueExpression {
+        private final String valueString;
+        private final String conversionName;
+        private final char destinationType;
+        private final ValueExpression arg;
+
+        Conversion(String valueString, String conversionName, char destinationType, ValueExpression arg) {
+            this.valueString = valueString;
+            this.conversionName = conversionName;
+            this.destinationType = destinationType;
+            this.arg = arg;
+        }
+
+        @Override
+        char getType() {
+            return (isIntegral(this.destinationType) || isFloating(this.destinationType) ? this.destinationType : UNKNOWN);
+        }
+
+        @Override
+        long evalLong(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            final char argType = this.arg.getType();
+            if (isIntegral(argType)) {
+                final long arg = this.arg.evalLong(candidateObjects, candidateBackbone, constants, cache);
+                switch (this.destinationType) {
+                case INT:
+                    return (int) arg;
+                case SHORT:
+                    return (short) arg;
+                case BYTE:
+                    return (byte) arg;
+                default: //LONG
+                    return arg;
+                }
+            } else if (isFloating(argType)) {
+                final double arg = this.arg.evalDouble(candidateObjects, candidateBackbone, constants, cache);
+                switch (this.destinationType) {
+                case INT:
+                    return (int) arg;
+                case SHORT:
+                    return (short) (int) arg;
+                case BYTE:
+                    return (byte) (int) arg;
+                default: //LONG
+                    return (long) arg;
+                }
+            } else {
+                return ((Number) eval(candidateObjects, candidateBackbone, constants, cache)).longValue();
+            }
+        }
+
+        @Override
+        double evalDouble(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            final char argType = this.arg.getType();
+            final double arg;
+            if (isIntegral(argType)) {
+                final long argLong = this.arg.evalLong(candidateObjects, candidateBackbone, constants, cache);
+                arg = (this.destinationType == FLOAT ? (double) (float) argLong : (double) argLong);
+            } else if (isFloating(argType)) {
+                arg = this.arg.evalDouble(candidateObjects, candidateBackbone, constants, cache);
+            } else {
+                return ((Number) eval(candidateObjects, candidateBackbone, constants, cache)).doubleValue();
+            }
+            return (this.destinationType == FLOAT ? (double) (float) arg : arg);
+        }
+
+        @Override
+        Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            if (getType() != UNKNOWN && this.arg.getType() != UNKNOWN) {
+                return evalAndBox(this, candidateObjects, candidateBackbone, constants, cache);
+            }
+            final Object arg = this.arg.eval(candidateObjects, candidateBackbone, constants, cache);
+            if (arg instanceof Number) {
+                switch (this.destinationType) {
+                case DOUBLE:
+                    return Double.valueOf(((Number) arg).doubleValue());
+                case FLOAT:
+                    return Float.valueOf(((Number) arg).floatValue());
+                case INT:
+                    return Integer.valueOf(((Number) arg).intValue());
+                case SHORT:
+                    return Short.valueOf(((Number) arg).shortValue());
+                case BYTE:
+                    return Byte.valueOf(((Number) arg).byteValue());
+                case LONG:
+                    return Long.valueOf(((Number) arg).longValue());
+                default:
+                    throw new SimilarityComputationException("Ill-formed " + this.conversionName + " value " + this.valueString + ".");
+                }
+            } else {
+                throw new SimilarityComputationException("Ill-formed " + this.conversionName + " value " + this.valueString + ".");
+            }
+        }
+    }
+
+    private static final class Negation extends ValueExpression {
+        private final String valueString;
+        private final ValueExpression arg;
+
+        Negation(String valueString, ValueExpression arg) {
+            this.valueString = valueString;
+            this.arg = arg;
+        }
+
+        @Override
+        char getType() {
+            return this.arg.getType();
+        }
+
+        @Override
+        long evalLong(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            final long arg = this.arg.evalLong(candidateObjects, candidateBackbone, constants, cache);
+            switch (getType()) {
+            case BYTE:
+                return (byte) - arg;
+            case SHORT:
+                return (short) - arg;
+            case INT:
+                return (int) - arg;
+            default: //LONG
+                return - arg;
+            }
+        }
+
+        @Override
+        double evalDouble(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            return - this.arg.evalDouble(candidateObjects, candidateBackbone, constants, cache);
+        }
+
+        @Override
+        Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            if (getType() != UNKNOWN) {
+                return evalAndBox(this, candidateObjects, candidateBackbone, constants, cache);
+            }
+            final Object arg = this.arg.eval(candidateObjects, candidateBackbone, constants, cache);
+            if (arg instanceof Byte) {
+                return Byte.valueOf((byte) - ((Byte) arg).byteValue());
+            } else if (arg instanceof Double) {
+                return Double.valueOf(- ((Double) arg).doubleValue());
+            } else if (arg instanceof Float) {
+                return Float.valueOf(- ((Float) arg).floatValue());
+            } else if (arg instanceof Integer) {
+                return Integer.valueOf(- ((Integer) arg).intValue());
+            } else if (arg instanceof Long) {
+                return Long.valueOf(- ((Long) arg).longValue());
+            } else if (arg instanceof Short) {
+                return Short.valueOf((short) - ((Short) arg).shortValue());
+            } else {
+                throw new SimilarityComputationException("Found an arithmetic negation whose operand has wrong type: " + this.valueString + ".");
+            }
+        }
+    }
+
+    private enum Operator {
+        ADD_OP(ADD), SUB_OP(SUB), MUL_OP(MUL), DIV_OP(DIV), REM_OP(REM), SHL_OP(SHL), SHR_OP(SHR),
+        USHR_OP(USHR), ORBW_OP(ORBW), ANDBW_OP(ANDBW), XORBW_OP(XORBW);
+
+        private final String symbol;
+
+        private Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        static Operator of(String symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class BinaryOperation extends ValueExpression {
+        private final String valueString;
+        private final Operator operator;
+        private final ValueExpression arg1;
+        private final ValueExpression arg2;
+
+        private final char type;
+
+        BinaryOperation(String valueString, Operator operator, ValueExpression arg1, ValueExpression arg2) {
+            this.valueString = valueString;
+            this.operator = operator;
+            this.arg1 = arg1;
+            this.arg2 = arg2;
+            this.type = type(operator, arg1.getType(), arg2.getType());
+        }
+        
+        private static char type(Operator operator, char type1, char type2) {
+            switch (operator) {
+            case SHL_OP:
+            case SHR_OP:
+            case USHR_OP:
+                return ((type1 == INT || type1 == LONG) && type2 == INT ? type1 : UNKNOWN);
+            case ORBW_OP:
+            case ANDBW_OP:
+            case XORBW_OP:
+                return ((type1 == INT || type1 == LONG) && type1 == type2 ? type1 : UNKNOWN);
+            default:
+                return (type1 != UNKNOWN && type1 == type2 ? type1 : UNKNOWN);
+            }
+        }
+
+        @Override
+        char getType() {
+            return this.type;
+        }
+
+        @Override
+        long evalLong(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            final long arg1 = this.arg1.evalLong(candidateObjects, candidateBackbone, constants, cache);
+            final long arg2 = this.arg2.evalLong(candidateObjects, candidateBackbone, constants, cache);
+            if (this.type == LONG) {
+                switch (this.operator) {
+                case ADD_OP:
+                    return arg1 + arg2;
+                case SUB_OP:
+                    return arg1 - arg2;
+                case MUL_OP:
+                case DIV_OP: //multiplies, as the boxed evaluation
+                    return arg1 * arg2;
+                case REM_OP:
+                    return arg1 % arg2;
+                case SHL_OP:
+                    return arg1 << (int) arg2;
+                case SHR_OP:
+                    return arg1 >> (int) arg2;
+                case USHR_OP:
+                    return arg1 >>> (int) arg2;
+                case ORBW_OP:
+                    return arg1 | arg2;
+                case ANDBW_OP:
+                    return arg1 & arg2;
+                default: //XORBW_OP
+                    return arg1 ^ arg2;
+                }
+            } else {
+                //byte, short and int operations are done in int and then narrowed
+                final int int1 = (int) arg1, int2 = (int) arg2;
+                final int result;
+                switch (this.operator) {
+                case ADD_OP:
+                    result = int1 + int2;
+                    break;
+                case SUB_OP:
+                    result = int1 - int2;
+                    break;
+                case MUL_OP:
+                    result = int1 * int2;
+                    break;
+                case DIV_OP: //divides only bytes, as the boxed evaluation
+                    result = (this.type == BYTE ? int1 / int2 : int1 * int2);
+                    break;
+                case REM_OP:
+                    result = int1 % int2;
+                    break;
+                case SHL_OP:
+                    result = int1 << int2;
+                    break;
+                case SHR_OP:
+                    result = int1 >> int2;
+                    break;
+                case USHR_OP:
+                    result = int1 >>> int2;
+                    break;
+                case ORBW_OP:
+                    result = int1 | int2;
+                    break;
+                case ANDBW_OP:
+                    result = int1 & int2;
+                    break;
+                default: //XORBW_OP
+                    result = int1 ^ int2;
+                    break;
+                }
+                return (this.type == BYTE ? (byte) result : this.type == SHORT ? (short) result : result);
+            }
+        }
+
+        @Override
+        double evalDouble(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            final double arg1 = this.arg1.evalDouble(candidateObjects, candidateBackbone, constants, cache);
+            final double arg2 = this.arg2.evalDouble(candidateObjects, candidateBackbone, constants, cache);
+            if (this.type == FLOAT) {
+                final float float1 = (float) arg1, float2 = (float) arg2;
+                switch (this.operator) {
+                case ADD_OP:
+                    return float1 + float2;
+                case SUB_OP:
+                    return float1 - float2;
+                case REM_OP:
+                    return float1 % float2;
+                default: //MUL_OP, and DIV_OP that multiplies as the boxed evaluation
+                    return float1 * float2;
+                }
+            } else {
+                switch (this.operator) {
+                case ADD_OP:
+                    return arg1 + arg2;
+                case SUB_OP:
+                    return arg1 - arg2;
+                case REM_OP:
+                    return arg1 % arg2;
+                default: //MUL_OP, and DIV_OP that multiplies as the boxed evaluation
+                    return arg1 * arg2;
+                }
+            }
+        }
+
+        @Override
+        Object eval(Map<String, Object> candidateObjects, CandidateBackbone candidateBackbone, Map<Long, String> constants, SushiLibCache cache)
+        throws FieldNotInCandidateException, ObjectNotInCandidateException, FieldDependsOnInvalidFieldPathException {
+            if (this.type != UNKNOWN) {
+                return evalAndBox(this, candidateObjects, candidateBackbone, constants, cache);
+            }
+            final Object arg1 = this.arg1.eval(candidateObjects, candidateBackbone, constants, cache);
+            final Object arg2 = this.arg2.eval(candidateObjects, candidateBackbone, constants, cache);
+            switch (this.operator) {
+            case ADD_OP:
+                if (arg1 instanceof Byte && arg2 instanceof Byte) {
+                    return Byte.valueOf((byte) (((Byte) arg1).byteValue() + ((Byte) arg2).byteValue()));
+                } else if (arg1 instanceof Double && arg2 instanceof Double) {
+                    return Double.valueOf(((Double) arg1).doubleValue() + ((Double) arg2).doubleValue());
+                } else if (arg1 instanceof Float && arg2 instanceof Float) {
+                    return Float.valueOf(((Float) arg1).floatValue() + ((Float) arg2).floatValue());
+                } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() + ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() + ((Long) arg2).longValue());
+                } else if (arg1 instanceof Short && arg2 instanceof Short) {
+                    return Short.valueOf((short) (((Short) arg1).shortValue() + ((Short) arg2).shortValue()));
+                } else {
+                    throw new SimilarityComputationException("Found a sum whose operands have different types: " + this.valueString + ".");
+                }
+            case SUB_OP:
+                if (arg1 instanceof Byte && arg2 instanceof Byte) {
+                    return Byte.valueOf((byte) (((Byte) arg1).byteValue() - ((Byte) arg2).byteValue()));
+                } else if (arg1 instanceof Double && arg2 instanceof Double) {
+                    return Double.valueOf(((Double) arg1).doubleValue() - ((Double) arg2).doubleValue());
+                } else if (arg1 instanceof Float && arg2 instanceof Float) {
+                    return Float.valueOf(((Float) arg1).floatValue() - ((Float) arg2).floatValue());
+                } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() - ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() - ((Long) arg2).longValue());
+                } else if (arg1 instanceof Short && arg2 instanceof Short) {
+                    return Short.valueOf((short) (((Short) arg1).shortValue() - ((Short) arg2).shortValue()));
+                } else {
+                    throw new SimilarityComputationException("Found a subtraction whose operands have different types: " + this.valueString + ".");
+                }
+            case MUL_OP:
+                if (arg1 instanceof Byte && arg2 instanceof Byte) {
+                    return Byte.valueOf((byte) (((Byte) arg1).byteValue() * ((Byte) arg2).byteValue()));
+                } else if (arg1 instanceof Double && arg2 instanceof Double) {
+                    return Double.valueOf(((Double) arg1).doubleValue() * ((Double) arg2).doubleValue());
+                } else if (arg1 instanceof Float && arg2 instanceof Float) {
+                    return Float.valueOf(((Float) arg1).floatValue() * ((Float) arg2).floatValue());
+                } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() * ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() * ((Long) arg2).longValue());
+                } else if (arg1 instanceof Short && arg2 instanceof Short) {
+                    return Short.valueOf((short) (((Short) arg1).shortValue() * ((Short) arg2).shortValue()));
+                } else {
+                    throw new SimilarityComputationException("Found a multiplication whose operands have different types: " + this.valueString + ".");
+                }
+            case DIV_OP:
+                //only byte operands are divided, the others are multiplied: this is what the evaluation from strings always did, and it is kept on purpose so that the distances do not change
+                if (arg1 instanceof Byte && arg2 instanceof Byte) {
+                    return Byte.valueOf((byte) (((Byte) arg1).byteValue() / ((Byte) arg2).byteValue()));
+                } else if (arg1 instanceof Double && arg2 instanceof Double) {
+                    return Double.valueOf(((Double) arg1).doubleValue() * ((Double) arg2).doubleValue());
+                } else if (arg1 instanceof Float && arg2 instanceof Float) {
+                    return Float.valueOf(((Float) arg1).floatValue() * ((Float) arg2).floatValue());
+                } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() * ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() * ((Long) arg2).longValue());
+                } else if (arg1 instanceof Short && arg2 instanceof Short) {
+                    return Short.valueOf((short) (((Short) arg1).shortValue() * ((Short) arg2).shortValue()));
+                } else {
+                    throw new SimilarityComputationException("Found a division whose operands have different types: " + this.valueString + ".");
+                }
+            case REM_OP:
+                if (arg1 instanceof Byte && arg2 instanceof Byte) {
+                    return Byte.valueOf((byte) (((Byte) arg1).byteValue() % ((Byte) arg2).byteValue()));
+                } else if (arg1 instanceof Double && arg2 instanceof Double) {
+                    return Double.valueOf(((Double) arg1).doubleValue() % ((Double) arg2).doubleValue());
+                } else if (arg1 instanceof Float && arg2 instanceof Float) {
+                    return Float.valueOf(((Float) arg1).floatValue() % ((Float) arg2).floatValue());
+                } else if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() % ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() % ((Long) arg2).longValue());
+                } else if (arg1 instanceof Short && arg2 instanceof Short) {
+                    return Short.valueOf((short) (((Short) arg1).shortValue() % ((Short) arg2).shortValue()));
+                } else {
+                    throw new SimilarityComputationException("Found a remainder whose operands have different types: " + this.valueString + ".");
+                }
+            case SHL_OP:
+                if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() << ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Integer) {
+                    return Long.valueOf(((Long) arg1).longValue() << ((Integer) arg2).intValue());
+                } else {
+                    throw new SimilarityComputationException("Found a left shift whose operands have wrong types: " + this.valueString + ".");
+                }
+            case SHR_OP:
+                if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() >> ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Integer) {
+                    return Long.valueOf(((Long) arg1).longValue() >> ((Integer) arg2).intValue());
+                } else {
+                    throw new SimilarityComputationException("Found an arithmetic right shift whose operands have wrong types: " + this.valueString + ".");
+                }
+            case USHR_OP:
+                if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() >>> ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Integer) {
+                    return Long.valueOf(((Long) arg1).longValue() >>> ((Integer) arg2).intValue());
+                } else {
+                    throw new SimilarityComputationException("Found a logical right shift whose operands have wrong types: " + this.valueString + ".");
+                }
+            case ORBW_OP:
+                if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() | ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() | ((Long) arg2).longValue());
+                } else {
+                    throw new SimilarityComputationException("Found a bitwise or whose operands have wrong types: " + this.valueString + ".");
+                }
+            case ANDBW_OP:
+                if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() & ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() & ((Long) arg2).longValue());
+                } else {
+                    throw new SimilarityComputationException("Found a bitwise and whose operands have wrong types: " + this.valueString + ".");
+                }
+            case XORBW_OP:
+                if (arg1 instanceof Integer && arg2 instanceof Integer) {
+                    return Integer.valueOf(((Integer) arg1).intValue() ^ ((Integer) arg2).intValue());
+                } else if (arg1 instanceof Long && arg2 instanceof Long) {
+                    return Long.valueOf(((Long) arg1).longValue() ^ ((Long) arg2).longValue());
+                } else {
+                    throw new SimilarityComputationException("Found a bitwise xor whose operands have wrong types: " + this.valueString + ".");
+                }
+            default:
+                throw new RuntimeException("Internal error: unreachable case reached (possibly unforeseen or badly detected expected operator); operator: " + this.operator + ".");
+            }
+        }
+    }
+}
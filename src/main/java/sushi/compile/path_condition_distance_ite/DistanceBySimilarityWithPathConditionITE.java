@@ -20,9 +20,28 @@ public class DistanceBySimilarityWithPathConditionITE {
     }
 
     public static <COLOR_TYPE> double distance(List<ClauseSimilarityHandlerITE<COLOR_TYPE>> pathConditionSimilarityHandlers, Map<String, Object> candidateObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache, PathConditionColor<COLOR_TYPE> color) {
+        return distance(pathConditionSimilarityHandlers, candidateObjects, constants, classLoader, cache, color, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Computes the distance of a candidate from a path condition, stopping 
+     * as soon as it is certain that the distance is greater than a cutoff. 
+     * Since every clause contributes at most 1.0 to the similarity, this 
+     * happens when the similarity lost on the clauses evaluated so far 
+     * exceeds {@code cutoff}. In such case {@code color} is only merged
+     * with the colors of the clauses evaluated before stopping.
+     * 
+     * @param cutoff a {@code double}, the distance the caller is interested 
+     *        to beat (e.g., the distance of the best candidate so far). 
+     * @return the distance of the candidate from the path condition if it 
+     *         is less than or equal to {@code cutoff}, otherwise a lower bound 
+     *         of it that is greater than {@code cutoff}.
+     */
+    public static <COLOR_TYPE> double distance(List<ClauseSimilarityHandlerITE<COLOR_TYPE>> pathConditionSimilarityHandlers, Map<String, Object> candidateObjects, Map<Long, String> constants, ClassLoader classLoader, SushiLibCache cache, PathConditionColor<COLOR_TYPE> color, double cutoff) {
         logger.debug("Computing similarity with path condition: ");
 
-        double achievedSimilarity = 0.0d;		
+        double achievedSimilarity = 0.0d;
+        int evaluatedClauses = 0;
         CandidateBackbone backbone = CandidateBackbone.makeNewBackbone(classLoader); 
         if (color != null) {
         	color.reset();
@@ -32,6 +51,11 @@ public class DistanceBySimilarityWithPathConditionITE {
             if (color != null) {
             	color.merge(handler.getColor());
             }
+            ++evaluatedClauses;
+            if (evaluatedClauses - achievedSimilarity > cutoff) {
+                logger.debug("Distance from path condition is at least " + (evaluatedClauses - achievedSimilarity) + ", beyond cutoff " + cutoff);
+                return evaluatedClauses - achievedSimilarity;
+            }
         }
 
         logger.debug("Similarity with path condition is " + achievedSimilarity);
@@ -8,9 +8,21 @@ public class ObjectField {
 	
 	private final Object obj;
 	private final Field fld;
+	private final int index; //-1 for fields, the index for array items
 
 	public ObjectField(Object obj, String fldName) {
 		this.obj = obj;
+		if (obj.getClass().isArray()) {
+			//the name of an array item is its index
+			this.fld = null;
+			try {
+				this.index = Integer.parseInt(fldName);
+			} catch (NumberFormatException e) {
+				throw new RuntimeException(e);
+			}
+			return;
+		}
+		this.index = -1;
 		try {
         	Class<?> clazz = obj.getClass();
         	Field fldTmp = null;
@@ -34,6 +46,19 @@ public class ObjectField {
 	public ObjectField(Object obj, Field fld) {
 		this.obj = obj;
 		this.fld = fld;
+		this.index = -1;
+	}
+
+	/**
+	 * Constructor for the items of arrays.
+	 * 
+	 * @param array an array.
+	 * @param index the index of an item of {@code array}.
+	 */
+	public ObjectField(Object array, int index) {
+		this.obj = array;
+		this.fld = null;
+		this.index = index;
 	}
 
 	@Override
@@ -42,6 +67,7 @@ public class ObjectField {
 		int result = 1;
 		result = prime * result + ((this.fld == null) ? 0 : this.fld.hashCode());
 		result = prime * result + ((this.obj == null) ? 0 : identityHashCode(this.obj));
+		result = prime * result + this.index;
 		return result;
 	}
 
@@ -57,6 +83,9 @@ public class ObjectField {
 			return false;
 		}
 		final ObjectField other = (ObjectField) obj;
+		if (this.index != other.index) {
+			return false;
+		}
 		if (this.fld == null) {
 			if (other.fld != null) {
 				return false;
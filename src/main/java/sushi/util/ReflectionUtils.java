@@ -17,12 +17,45 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ReflectionUtils {
 
+    /* 
+     * Caches of the reflective metadata. They are ClassValues, that store
+     * the metadata in the classes themselves and do not prevent the classes,
+     * and their class loaders, from being garbage collected.
+     */
+
+    /** For each class, its (unmodifiable) list of inherited fields. */
+    private final static ClassValue<List<Field>> inheritedPrivateFields = new ClassValue<List<Field>>() {
+        @Override
+        protected List<Field> computeValue(Class<?> type) {
+            return Collections.unmodifiableList(computeInheritedPrivateFields(type));
+        }
+    };
+
+    /** For each class, its inherited fields resolved by declaring class and name. */
+    private final static ClassValue<ConcurrentHashMap<String, Optional<Field>>> inheritedPrivateField = new ClassValue<ConcurrentHashMap<String, Optional<Field>>>() {
+        @Override
+        protected ConcurrentHashMap<String, Optional<Field>> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    /** For each class, its declared methods resolved by descriptor and name. */
+    private final static ClassValue<ConcurrentHashMap<String, Method>> declaredMethods = new ClassValue<ConcurrentHashMap<String, Method>>() {
+        @Override
+        protected ConcurrentHashMap<String, Method> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
     private final static Set<String> excluded;
     public  final static Set<Class<?>> primitives;
     public  final static Set<String> primitivesStringRepresentation;
@@ -89,7 +122,19 @@ public class ReflectionUtils {
     }
 
 
+    /**
+     * Returns all the fields declared by a class and by its superclasses,
+     * {@link Object} excluded.
+     * 
+     * @param type a {@link Class}.
+     * @return an unmodifiable {@link List}{@code <}{@link Field}{@code >}, 
+     *         computed once for each class.
+     */
     public static List<Field> getInheritedPrivateFields(final Class<?> type) {
+        return inheritedPrivateFields.get(type);
+    }
+
+    private static List<Field> computeInheritedPrivateFields(final Class<?> type) {
         List<Field> result = new ArrayList<Field>();
 
         Class<?> i = type;
@@ -109,6 +154,17 @@ public class ReflectionUtils {
     }
 
     public static Field getInheritedPrivateField(final Class<?> type, String fname, String cname) {
+        final ConcurrentHashMap<String, Optional<Field>> fields = inheritedPrivateField.get(type);
+        final String key = cname + ":" + fname;
+        Optional<Field> field = fields.get(key);
+        if (field == null) {
+            field = Optional.ofNullable(computeInheritedPrivateField(type, fname, cname));
+            fields.putIfAbsent(key, field);
+        }
+        return field.orElse(null);
+    }
+
+    private static Field computeInheritedPrivateField(final Class<?> type, String fname, String cname) {
         Class<?> i = type;
         while (i != null && i != Object.class) {
             if (i.getName().replace('.', '/').equals(cname)) {
@@ -170,14 +226,40 @@ public class ReflectionUtils {
         return false;
     }
 
+    /**
+     * Returns a method declared by a class. The classes of the parameters
+     * are resolved by the class loader of the class.
+     * 
+     * @param methodClass the {@link Class} that declares the method.
+     * @param methodDescriptor a {@link String}, the descriptor of the method.
+     * @param methodName a {@link String}, the name of the method.
+     * @return the {@link Method}, that is resolved once for each class, 
+     *         descriptor and name.
+     * @throws ClassNotFoundException if the class of some parameter does not exist.
+     * @throws NoSuchMethodException if the method does not exist.
+     * @throws SecurityException if the method cannot be accessed.
+     */
     public static Method method(Class<?> methodClass, String methodDescriptor, String methodName) 
+    throws ClassNotFoundException, NoSuchMethodException, SecurityException {
+        final ConcurrentHashMap<String, Method> methods = declaredMethods.get(methodClass);
+        final String key = methodDescriptor + methodName;
+        final Method cachedMethod = methods.get(key);
+        if (cachedMethod != null) {
+            return cachedMethod;
+        }
+        final Method retVal = computeMethod(methodClass, methodDescriptor, methodName);
+        final Method otherMethod = methods.putIfAbsent(key, retVal);
+        return (otherMethod == null ? retVal : otherMethod);
+    }
+
+    private static Method computeMethod(Class<?> methodClass, String methodDescriptor, String methodName) 
     throws ClassNotFoundException, NoSuchMethodException, SecurityException {
         final ArrayList<Class<?>> parametersClasses = new ArrayList<>();
         for (String parameterType : splitParametersDescriptors(methodDescriptor)) {
             final Class<?> parameterClass;
             if (parameterType.charAt(0) == ARRAYOF || parameterType.charAt(0) == REFERENCE) {
                 final String parameterJavaType = javaClass(parameterType, false);
-                parameterClass = Class.forName(parameterJavaType);
+                parameterClass = Class.forName(parameterJavaType, false, methodClass.getClassLoader());
             } else {
                 switch (parameterType.charAt(0)) {
                 case BOOLEAN:
@@ -0,0 +1,81 @@
+package sushi.compile.distance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class PairWorklistTest {
+	@Test
+	public void testFifoOrder() {
+		final PairWorklist worklist = new PairWorklist();
+		assertTrue(worklist.isEmpty());
+		for (int i = 0; i < 10; ++i) {
+			worklist.add(Integer.valueOf(i), "" + i);
+		}
+		assertEquals(10, worklist.size());
+		removeAndCheck(worklist, 0, 10);
+		assertTrue(worklist.isEmpty());
+	}
+
+	@Test
+	public void testGrowWhenWrapped() {
+		final PairWorklist worklist = new PairWorklist();
+		//moves the head away from 0, then fills the ring so that it wraps and grows
+		for (int i = 0; i < 64; ++i) {
+			worklist.add(Integer.valueOf(i), "" + i);
+		}
+		removeAndCheck(worklist, 0, 40);
+		for (int i = 64; i < 300; ++i) {
+			worklist.add(Integer.valueOf(i), "" + i);
+		}
+		assertEquals(260, worklist.size());
+		removeAndCheck(worklist, 40, 300);
+		assertTrue(worklist.isEmpty());
+	}
+
+	@Test
+	public void testInterleavedAddAndRemove() {
+		final PairWorklist worklist = new PairWorklist();
+		int next = 0, expected = 0;
+		for (int round = 0; round < 100; ++round) {
+			//adds more pairs than it removes, so the ring wraps and grows many times
+			for (int k = 0; k < 7; ++k) {
+				worklist.add(Integer.valueOf(next), "" + next);
+				++next;
+			}
+			removeAndCheck(worklist, expected, expected + 5);
+			expected += 5;
+		}
+		assertEquals(next - expected, worklist.size());
+		removeAndCheck(worklist, expected, next);
+	}
+
+	@Test
+	public void testClearAndReuse() {
+		final PairWorklist worklist = new PairWorklist();
+		for (int i = 0; i < 100; ++i) {
+			worklist.add(Integer.valueOf(i), "" + i);
+		}
+		removeAndCheck(worklist, 0, 30);
+		worklist.clear();
+		assertTrue(worklist.isEmpty());
+		assertEquals(0, worklist.size());
+		for (int i = 0; i < 200; ++i) {
+			worklist.add(Integer.valueOf(i), "" + i);
+		}
+		assertEquals(200, worklist.size());
+		removeAndCheck(worklist, 0, 200);
+		assertTrue(worklist.isEmpty());
+	}
+
+	private static void removeAndCheck(PairWorklist worklist, int from, int to) {
+		for (int i = from; i < to; ++i) {
+			assertFalse(worklist.isEmpty());
+			assertEquals(Integer.valueOf(i), worklist.peekFirst());
+			assertEquals("" + i, worklist.peekSecond());
+			worklist.removeFirst();
+		}
+	}
+}
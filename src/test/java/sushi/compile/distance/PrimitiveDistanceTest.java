@@ -0,0 +1,125 @@
+package sushi.compile.distance;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that the distance of two arrays of boxed values is the same,
+ * bit for bit, as the distance of the corresponding arrays of primitive
+ * values.
+ */
+public class PrimitiveDistanceTest {
+	private static final int RANDOM_CASES = 500;
+	private static final double[] SPECIAL_DOUBLES = { Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.0d, -0.0d, Double.MIN_VALUE, Double.MAX_VALUE, -Double.MAX_VALUE };
+	private static final float[] SPECIAL_FLOATS = { Float.NaN, Float.POSITIVE_INFINITY, Float.NEGATIVE_INFINITY, 0.0f, -0.0f, Float.MIN_VALUE, Float.MAX_VALUE, -Float.MAX_VALUE };
+
+	@Test
+	public void testBoxedSameAsPrimitive() {
+		final Random random = new Random(22);
+		for (int k = 0; k < RANDOM_CASES; ++k) {
+			final int length1 = random.nextInt(40);
+			final int length2 = (random.nextBoolean() ? length1 : random.nextInt(40));
+
+			final int[] ints1 = randomInts(random, length1), ints2 = randomInts(random, length2);
+			checkSame(PrimitiveDistance.distance(ints1, ints2), PrimitiveDistance.distance(boxInts(ints1), boxInts(ints2)));
+
+			final long[] longs1 = new long[length1], longs2 = new long[length2];
+			final Long[] boxedLongs1 = new Long[length1], boxedLongs2 = new Long[length2];
+			final short[] shorts1 = new short[length1], shorts2 = new short[length2];
+			final Short[] boxedShorts1 = new Short[length1], boxedShorts2 = new Short[length2];
+			final byte[] bytes1 = new byte[length1], bytes2 = new byte[length2];
+			final Byte[] boxedBytes1 = new Byte[length1], boxedBytes2 = new Byte[length2];
+			final boolean[] booleans1 = new boolean[length1], booleans2 = new boolean[length2];
+			final Boolean[] boxedBooleans1 = new Boolean[length1], boxedBooleans2 = new Boolean[length2];
+			final char[] chars1 = new char[length1], chars2 = new char[length2];
+			final Character[] boxedChars1 = new Character[length1], boxedChars2 = new Character[length2];
+			final float[] floats1 = new float[length1], floats2 = new float[length2];
+			final Float[] boxedFloats1 = new Float[length1], boxedFloats2 = new Float[length2];
+			final double[] doubles1 = new double[length1], doubles2 = new double[length2];
+			final Double[] boxedDoubles1 = new Double[length1], boxedDoubles2 = new Double[length2];
+			for (int i = 0; i < length1; ++i) {
+				boxedLongs1[i] = longs1[i] = randomLong(random);
+				boxedShorts1[i] = shorts1[i] = (short) random.nextInt();
+				boxedBytes1[i] = bytes1[i] = (byte) random.nextInt();
+				boxedBooleans1[i] = booleans1[i] = random.nextBoolean();
+				boxedChars1[i] = chars1[i] = (char) ('a' + random.nextInt(3));
+				boxedFloats1[i] = floats1[i] = randomFloat(random);
+				boxedDoubles1[i] = doubles1[i] = randomDouble(random);
+			}
+			for (int i = 0; i < length2; ++i) {
+				boxedLongs2[i] = longs2[i] = randomLong(random);
+				boxedShorts2[i] = shorts2[i] = (short) random.nextInt();
+				boxedBytes2[i] = bytes2[i] = (byte) random.nextInt();
+				boxedBooleans2[i] = booleans2[i] = random.nextBoolean();
+				boxedChars2[i] = chars2[i] = (char) ('a' + random.nextInt(3));
+				boxedFloats2[i] = floats2[i] = randomFloat(random);
+				boxedDoubles2[i] = doubles2[i] = randomDouble(random);
+			}
+			checkSame(PrimitiveDistance.distance(longs1, longs2), PrimitiveDistance.distance(boxedLongs1, boxedLongs2));
+			checkSame(PrimitiveDistance.distance(shorts1, shorts2), PrimitiveDistance.distance(boxedShorts1, boxedShorts2));
+			checkSame(PrimitiveDistance.distance(bytes1, bytes2), PrimitiveDistance.distance(boxedBytes1, boxedBytes2));
+			checkSame(PrimitiveDistance.distance(booleans1, booleans2), PrimitiveDistance.distance(boxedBooleans1, boxedBooleans2));
+			checkSame(PrimitiveDistance.distance(chars1, chars2), PrimitiveDistance.distance(boxedChars1, boxedChars2));
+			checkSame(PrimitiveDistance.distance(floats1, floats2), PrimitiveDistance.distance(boxedFloats1, boxedFloats2));
+			checkSame(PrimitiveDistance.distance(doubles1, doubles2), PrimitiveDistance.distance(boxedDoubles1, boxedDoubles2));
+		}
+	}
+
+	@Test
+	public void testSpecialValues() {
+		for (double d1 : SPECIAL_DOUBLES) {
+			for (double d2 : SPECIAL_DOUBLES) {
+				final double[] doubles1 = { d1, 1.0d }, doubles2 = { d2, 1.0d, 2.0d };
+				checkSame(PrimitiveDistance.distance(doubles1, doubles2), PrimitiveDistance.distance(new Double[] { d1, 1.0d }, new Double[] { d2, 1.0d, 2.0d }));
+			}
+		}
+		for (float f1 : SPECIAL_FLOATS) {
+			for (float f2 : SPECIAL_FLOATS) {
+				final float[] floats1 = { f1, 1.0f }, floats2 = { f2, 1.0f, 2.0f };
+				checkSame(PrimitiveDistance.distance(floats1, floats2), PrimitiveDistance.distance(new Float[] { f1, 1.0f }, new Float[] { f2, 1.0f, 2.0f }));
+			}
+		}
+		checkSame(PrimitiveDistance.distance(new int[] { Integer.MIN_VALUE }, new int[] { Integer.MAX_VALUE }), PrimitiveDistance.distance(new Integer[] { Integer.MIN_VALUE }, new Integer[] { Integer.MAX_VALUE }));
+		checkSame(PrimitiveDistance.distance(new long[] { Long.MIN_VALUE }, new long[] { Long.MAX_VALUE }), PrimitiveDistance.distance(new Long[] { Long.MIN_VALUE }, new Long[] { Long.MAX_VALUE }));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullItem() {
+		PrimitiveDistance.distance(new Integer[] { 1, null }, new Integer[] { 1, 2 });
+	}
+
+	private static void checkSame(double expected, double actual) {
+		assertEquals(Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+	}
+
+	private static int[] randomInts(Random random, int length) {
+		final int[] ints = new int[length];
+		for (int i = 0; i < length; ++i) {
+			ints[i] = (random.nextInt(4) == 0 ? random.nextInt() : random.nextInt(100));
+		}
+		return ints;
+	}
+
+	private static Integer[] boxInts(int[] ints) {
+		final Integer[] boxed = new Integer[ints.length];
+		for (int i = 0; i < ints.length; ++i) {
+			boxed[i] = ints[i];
+		}
+		return boxed;
+	}
+
+	private static long randomLong(Random random) {
+		return (random.nextInt(4) == 0 ? random.nextLong() : random.nextInt(100));
+	}
+
+	private static float randomFloat(Random random) {
+		return (random.nextInt(4) == 0 ? SPECIAL_FLOATS[random.nextInt(SPECIAL_FLOATS.length)] : random.nextFloat() * 100);
+	}
+
+	private static double randomDouble(Random random) {
+		return (random.nextInt(4) == 0 ? SPECIAL_DOUBLES[random.nextInt(SPECIAL_DOUBLES.length)] : random.nextDouble() * 100);
+	}
+}
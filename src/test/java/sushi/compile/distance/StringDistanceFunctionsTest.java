@@ -0,0 +1,199 @@
+package sushi.compile.distance;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the edit distances against the textbook two-row dynamic
+ * programming algorithm, and the containment distance against the
+ * minimum edit distance over all the substrings, on random strings
+ * and on the lengths at the boundaries of the 64-bit blocks of 
+ * {@link BitParallelEditDistance}.
+ */
+public class StringDistanceFunctionsTest {
+	private static final int[] BLOCK_BOUNDARY_LENGTHS = { 0, 1, 2, 63, 64, 65, 127, 128, 129 };
+	private static final String ASCII_ALPHABET = "ab";
+	private static final String WIDE_ALPHABET = "abc\u00e9\u00ff\u0100\u4e2d\ud83d\ude00";
+	private static final int RANDOM_CASES = 2000;
+
+	@Test
+	public void testNullAndEmpty() {
+		assertEquals(0, StringDistanceFunctions.distanceEditLevenshtein(null, null));
+		assertEquals(0, StringDistanceFunctions.distanceEditLevenshtein("", null));
+		assertEquals(0, StringDistanceFunctions.distanceEditLevenshtein("", ""));
+		assertEquals(3, StringDistanceFunctions.distanceEditLevenshtein(null, "abc"));
+		assertEquals(3, StringDistanceFunctions.distanceEditLevenshtein("abc", null));
+		assertEquals(3, StringDistanceFunctions.distanceEditLevenshtein("", "abc"));
+		assertEquals(0, StringDistanceFunctions.distanceEditLevenshtein(null, null, 0));
+		assertEquals(1, StringDistanceFunctions.distanceEditLevenshtein(null, "abc", 0));
+		assertEquals(3, StringDistanceFunctions.distanceEditLevenshtein("abc", null, 5));
+		assertEquals(3, StringDistanceFunctions.distanceEditLevenshtein("", "abc", 3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeMaximum() {
+		StringDistanceFunctions.distanceEditLevenshtein("a", "b", -1);
+	}
+
+	@Test
+	public void testBlockBoundaries() {
+		final Random random = new Random(64);
+		for (int sLength : BLOCK_BOUNDARY_LENGTHS) {
+			for (int tLength : BLOCK_BOUNDARY_LENGTHS) {
+				for (String alphabet : new String[] { ASCII_ALPHABET, WIDE_ALPHABET }) {
+					final String s = randomString(random, alphabet, sLength);
+					final String t = randomString(random, alphabet, tLength);
+					checkDistances(random, s, t);
+					checkDistances(random, s, mutate(random, alphabet, s));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testRandomStrings() {
+		final Random random = new Random(2024);
+		for (int k = 0; k < RANDOM_CASES; ++k) {
+			final String alphabet = (random.nextBoolean() ? ASCII_ALPHABET : WIDE_ALPHABET);
+			final String s = randomString(random, alphabet, random.nextInt(200));
+			final String t = (random.nextBoolean() ? mutate(random, alphabet, s) : randomString(random, alphabet, random.nextInt(200)));
+			checkDistances(random, s, t);
+		}
+	}
+
+	@Test
+	public void testContainmentNullAndEmpty() {
+		assertEquals(0, StringDistanceFunctions.distanceContainment(null, null));
+		assertEquals(0, StringDistanceFunctions.distanceContainment("abc", null));
+		assertEquals(0, StringDistanceFunctions.distanceContainment("abc", ""));
+		assertEquals(3, StringDistanceFunctions.distanceContainment(null, "abc"));
+		assertEquals(3, StringDistanceFunctions.distanceContainment("", "abc"));
+	}
+
+	@Test
+	public void testContainmentBlockBoundaries() {
+		final Random random = new Random(65);
+		for (int subLength : BLOCK_BOUNDARY_LENGTHS) {
+			for (String alphabet : new String[] { ASCII_ALPHABET, WIDE_ALPHABET }) {
+				final String substring = randomString(random, alphabet, subLength);
+				final String prefix = randomString(random, alphabet, random.nextInt(40));
+				final String suffix = randomString(random, alphabet, random.nextInt(40));
+				checkContainment(prefix + mutate(random, alphabet, substring) + suffix, substring);
+				checkContainment(randomString(random, alphabet, subLength + 1 + random.nextInt(80)), substring);
+				checkContainment(randomString(random, alphabet, random.nextInt(subLength + 1)), substring);
+			}
+		}
+	}
+
+	@Test
+	public void testContainmentRandomStrings() {
+		final Random random = new Random(2025);
+		for (int k = 0; k < RANDOM_CASES / 4; ++k) {
+			final String alphabet = (random.nextBoolean() ? ASCII_ALPHABET : WIDE_ALPHABET);
+			final String substring = randomString(random, alphabet, random.nextInt(80));
+			final String superstring = (random.nextBoolean() ? 
+			                            randomString(random, alphabet, random.nextInt(20)) + mutate(random, alphabet, substring) + randomString(random, alphabet, random.nextInt(20)) :
+			                            randomString(random, alphabet, random.nextInt(160)));
+			checkContainment(superstring, substring);
+		}
+	}
+
+	private static void checkDistances(Random random, String s, String t) {
+		final int expected = twoRowDistance(s, t);
+		assertEquals(s + " / " + t, expected, StringDistanceFunctions.distanceEditLevenshtein(s, t));
+		assertEquals(t + " / " + s, expected, StringDistanceFunctions.distanceEditLevenshtein(t, s));
+		final int[] maxDistances = { 0, 1, expected - 1, expected, expected + 1, random.nextInt(Math.max(s.length(), t.length()) + 2) };
+		for (int maxDistance : maxDistances) {
+			if (maxDistance >= 0) {
+				assertEquals(s + " / " + t + " / " + maxDistance, Math.min(expected, maxDistance + 1), StringDistanceFunctions.distanceEditLevenshtein(s, t, maxDistance));
+			}
+		}
+	}
+
+	private static void checkContainment(String superstring, String substring) {
+		//if the superstring is not longer than the substring it is the edit distance
+		final int expected = (superstring.length() <= substring.length() ? twoRowDistance(superstring, substring) : bruteForceContainment(superstring, substring));
+		assertEquals(superstring + " / " + substring, expected, StringDistanceFunctions.distanceContainment(superstring, substring));
+	}
+
+	/** 
+	 * The minimum edit distance of a string from all the substrings 
+	 * of another one, the empty one included. For each start of the 
+	 * substrings, the last row of the two-row algorithm has the 
+	 * distances from all the substrings with that start. 
+	 */
+	private static int bruteForceContainment(String superstring, String substring) {
+		int min = substring.length();
+		for (int start = 0; start < superstring.length(); ++start) {
+			final String rest = superstring.substring(start);
+			int[] previousCost = new int[rest.length() + 1];
+			int[] cost = new int[rest.length() + 1];
+			for (int end = 0; end <= rest.length(); ++end) {
+				previousCost[end] = end;
+			}
+			for (int j = 0; j < substring.length(); ++j) {
+				cost[0] = j + 1;
+				for (int end = 0; end < rest.length(); ++end) {
+					final int singleCost = (rest.charAt(end) == substring.charAt(j) ? 0 : 1);
+					cost[end + 1] = Math.min(Math.min(cost[end] + 1, previousCost[end + 1] + 1), previousCost[end] + singleCost);
+				}
+				final int[] tmp = previousCost;
+				previousCost = cost;
+				cost = tmp;
+			}
+			for (int end = 0; end <= rest.length(); ++end) {
+				min = Math.min(min, previousCost[end]);
+			}
+		}
+		return min;
+	}
+
+	static int twoRowDistance(String s, String t) {
+		int[] previousCost = new int[s.length() + 1];
+		int[] cost = new int[s.length() + 1];
+		for (int i = 0; i <= s.length(); ++i) {
+			previousCost[i] = i;
+		}
+		for (int j = 0; j < t.length(); ++j) {
+			cost[0] = j + 1;
+			for (int i = 0; i < s.length(); ++i) {
+				final int singleCost = (s.charAt(i) == t.charAt(j) ? 0 : 1);
+				cost[i + 1] = Math.min(Math.min(cost[i] + 1, previousCost[i + 1] + 1), previousCost[i] + singleCost);
+			}
+			final int[] tmp = previousCost;
+			previousCost = cost;
+			cost = tmp;
+		}
+		return previousCost[s.length()];
+	}
+
+	static String randomString(Random random, String alphabet, int length) {
+		final StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; ++i) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+
+	/** Returns a string a few random edits away from another one. */
+	static String mutate(Random random, String alphabet, String s) {
+		final StringBuilder sb = new StringBuilder(s);
+		final int edits = random.nextInt(6);
+		for (int k = 0; k < edits; ++k) {
+			final int position = random.nextInt(sb.length() + 1);
+			final char c = alphabet.charAt(random.nextInt(alphabet.length()));
+			final int edit = random.nextInt(3);
+			if (edit == 0 || position == sb.length()) {
+				sb.insert(position, c);
+			} else if (edit == 1) {
+				sb.deleteCharAt(position);
+			} else {
+				sb.setCharAt(position, c);
+			}
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,105 @@
+package sushi.compile.path_condition_distance;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Checks that a {@link CandidateBackbone} can be used with
+ * several {@link SushiLibCache}s.
+ */
+public class CandidateBackboneTest {
+	private static final String ROOT = "{ROOT}:this";
+	private static final String PACKAGE = "sushi/compile/path_condition_distance/";
+	private static final String NODE = PACKAGE + "CandidateBackboneTest$Node";
+	private static final String HEAD = ROOT + "." + NODE + ":next";
+	private static final String SECOND = HEAD + "." + NODE + ":next";
+	private static final String THIRD = SECOND + "." + NODE + ":next";
+
+	public static final class Node {
+		private Node next;
+	}
+
+	@Test
+	public void testTwoCaches() throws Exception {
+		final Node root = list(4);
+		final Map<String, Object> candidateObjects = new HashMap<>();
+		candidateObjects.put(ROOT, root);
+		final SushiLibCache cache1 = new SushiLibCache();
+		final SushiLibCache cache2 = new SushiLibCache();
+		final CandidateBackbone backbone = new CandidateBackbone(CandidateBackboneTest.class.getClassLoader());
+
+		assertSame(root.next, backbone.retrieveOrVisitField(HEAD, candidateObjects, new HashMap<>(), cache1));
+		final Node head = root.next;
+		assertSame(head.next, backbone.retrieveOrVisitField(SECOND, candidateObjects, new HashMap<>(), cache2));
+		root.next = new Node(); //the visits are memoized, whatever the cache
+		assertSame(head, backbone.getObjectByOrigin(HEAD));
+		assertSame(head, backbone.retrieveOrVisitField(HEAD, candidateObjects, new HashMap<>(), cache2));
+		assertSame(head, backbone.retrieveOrVisitField(HEAD, candidateObjects, new HashMap<>(), cache1));
+		assertTrue(backbone.isVisitedOrigin(SECOND));
+		assertSame(head.next, backbone.getObjectByOrigin(SECOND));
+
+		//the backbone does not add the origins of a cache to the table of another
+		assertNull(cache1.getSymbols().find(SECOND));
+		assertFalse(backbone.isVisitedOrigin(THIRD));
+	}
+
+	@Test
+	public void testInvalidFieldPathAcrossCaches() throws Exception {
+		final Map<String, Object> candidateObjects = new HashMap<>();
+		candidateObjects.put(ROOT, list(4));
+		final SushiLibCache cache1 = new SushiLibCache();
+		final SushiLibCache cache2 = new SushiLibCache();
+		final CandidateBackbone backbone = new CandidateBackbone(CandidateBackboneTest.class.getClassLoader());
+
+		backbone.retrieveOrVisitField(HEAD, candidateObjects, new HashMap<>(), cache1);
+		cache1.getParsedOrigin(SECOND, backbone.getClassLoader()); //numbered in the first table
+		backbone.addInvalidFieldPath(SECOND);
+		try {
+			backbone.retrieveOrVisitField(THIRD, candidateObjects, new HashMap<>(), cache2);
+			fail();
+		} catch (FieldDependsOnInvalidFieldPathException e) {
+			//expected
+		}
+		try {
+			backbone.retrieveOrVisitField(THIRD, candidateObjects, new HashMap<>(), cache1);
+			fail();
+		} catch (FieldDependsOnInvalidFieldPathException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void testReusedBackboneUnbound() throws Exception {
+		CandidateBackbone.resetAndReuseUntilReset();
+		final Map<String, Object> candidateObjects = new HashMap<>();
+		candidateObjects.put(ROOT, list(4));
+		final SushiLibCache cache1 = new SushiLibCache();
+		final SushiLibCache cache2 = new SushiLibCache();
+		final ClassLoader classLoader = CandidateBackboneTest.class.getClassLoader();
+
+		CandidateBackbone backbone = CandidateBackbone.makeNewBackbone(classLoader);
+		backbone.retrieveOrVisitField(HEAD, candidateObjects, new HashMap<>(), cache1);
+		backbone = CandidateBackbone.makeNewBackbone(classLoader);
+		backbone.retrieveOrVisitField(SECOND, candidateObjects, new HashMap<>(), cache2);
+		backbone.retrieveOrVisitField(THIRD, candidateObjects, new HashMap<>(), cache2);
+		assertNull(cache1.getSymbols().find(THIRD));
+	}
+
+	private static Node list(int length) {
+		final Node root = new Node();
+		Node last = root;
+		for (int i = 0; i < length; ++i) {
+			last.next = new Node();
+			last = last.next;
+		}
+		return root;
+	}
+}
@@ -0,0 +1,90 @@
+package sushi.compile.path_condition_distance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ * Checks that all the {@link OriginAccessBackend}s evaluate origins
+ * to the same values, and raise the same exceptions.
+ */
+public class ParsedOriginTest {
+	private static final String ROOT = "{ROOT}:this";
+	private static final String PACKAGE = "sushi/compile/path_condition_distance/";
+	private static final String HOLDER = PACKAGE + "ParsedOriginTest$Holder";
+	private static final String NODE = PACKAGE + "ParsedOriginTest$Node";
+
+	public static final class Node {
+		private int value;
+		private Node next;
+	}
+
+	public static final class Holder {
+		private Node head;
+
+		public static int raiseError(int x) {
+			throw new AssertionError("error " + x);
+		}
+
+		public static int raiseException(int x) {
+			throw new IllegalStateException("exception " + x);
+		}
+
+		public static int raiseStackOverflow(int x) {
+			return raiseStackOverflow(x + 1);
+		}
+	}
+
+	@Test
+	public void testMethodRaisingError() {
+		for (OriginAccessBackend backend : OriginAccessBackend.values()) {
+			checkRaises(ObjectNotInCandidateException.class, backend, "<" + HOLDER + ":(I)I:raiseError@{V0}@>", new Holder());
+			checkRaises(ObjectNotInCandidateException.class, backend, "<" + HOLDER + ":(I)I:raiseStackOverflow@{V0}@>", new Holder());
+		}
+	}
+
+	@Test
+	public void testMethodRaisingException() {
+		for (OriginAccessBackend backend : OriginAccessBackend.values()) {
+			checkRaises(ObjectNotInCandidateException.class, backend, "<" + HOLDER + ":(I)I:raiseException@{V0}@>", new Holder());
+		}
+	}
+
+	@Test
+	public void testFieldChainThroughNull() throws Exception {
+		final Holder holder = new Holder();
+		holder.head = new Node();
+		holder.head.value = 1;
+		final String origin = ROOT + "." + HOLDER + ":head." + NODE + ":next." + NODE + ":value";
+		for (OriginAccessBackend backend : OriginAccessBackend.values()) {
+			checkRaises(FieldNotInCandidateException.class, backend, origin, holder);
+		}
+		holder.head.next = new Node();
+		holder.head.next.value = 2;
+		for (OriginAccessBackend backend : OriginAccessBackend.values()) {
+			assertEquals(backend.toString(), Integer.valueOf(2), evaluate(backend, origin, holder));
+		}
+	}
+
+	private static void checkRaises(Class<? extends Exception> expected, OriginAccessBackend backend, String origin, Holder root) {
+		try {
+			evaluate(backend, origin, root);
+			fail(backend + " evaluated " + origin);
+		} catch (Exception e) {
+			assertEquals(backend.toString(), expected, e.getClass());
+		}
+	}
+
+	private static Object evaluate(OriginAccessBackend backend, String origin, Holder root) throws Exception {
+		final ClassLoader classLoader = ParsedOriginTest.class.getClassLoader();
+		final Map<String, Object> candidateObjects = new HashMap<>();
+		candidateObjects.put(ROOT, root);
+		candidateObjects.put("{V0}", Integer.valueOf(1));
+		final CandidateBackbone backbone = new CandidateBackbone(classLoader);
+		return backbone.retrieveOrVisitField(origin, candidateObjects, new HashMap<>(), new SushiLibCache(backend));
+	}
+}
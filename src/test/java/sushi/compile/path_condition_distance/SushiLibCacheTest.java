@@ -0,0 +1,126 @@
+package sushi.compile.path_condition_distance;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class SushiLibCacheTest {
+	private static final String ROOT = "{ROOT}:this";
+	private static final String PACKAGE = "sushi/compile/path_condition_distance/";
+	private static final String NODE = PACKAGE + "SushiLibCacheTest$Node";
+	private static final int MAXIMUM_SIZE = 100;
+	private static final int ROUNDS = 20;
+	private static final int ORIGINS_PER_ROUND = 10000;
+
+	public static final class Node {
+		private Node next;
+	}
+
+	public static final class Counter {
+		private static int invocations = 0;
+
+		public static int count(int x) {
+			++invocations;
+			return x;
+		}
+	}
+
+	@Test
+	public void testBoundedCacheReleasesSymbols() throws InterruptedException {
+		final SushiLibCache cache = new SushiLibCache(OriginAccessBackend.REFLECTION, false, MAXIMUM_SIZE);
+		//each origin has two prefixes of its own, and the root in common
+		final int maximumSymbols = 2 * MAXIMUM_SIZE + 1;
+		int maximumId = 0;
+		for (int round = 0; round < ROUNDS; ++round) {
+			for (int i = 0; i < ORIGINS_PER_ROUND; ++i) {
+				final ParsedOrigin parsedOrigin = cache.getParsedOrigin(ROOT + "." + NODE + ":f" + round + "_" + i + "." + NODE + ":next");
+				maximumId = Math.max(maximumId, parsedOrigin.getSymbol().id);
+			}
+			assertEquals(MAXIMUM_SIZE, cache.size());
+			collectUntil(cache.getSymbols(), maximumSymbols);
+		}
+		assertEquals((long) ROUNDS * ORIGINS_PER_ROUND - MAXIMUM_SIZE, cache.getEvictions());
+		//without reuse the identifiers would be as many as all the origins and prefixes
+		assertTrue("maximum identifier " + maximumId, maximumId < 2 * (2 * ORIGINS_PER_ROUND + maximumSymbols));
+	}
+
+	@Test
+	public void testVisitKeepsSymbol() throws Exception {
+		final Node root = new Node();
+		root.next = new Node();
+		final Map<String, Object> candidateObjects = new HashMap<>();
+		candidateObjects.put(ROOT, root);
+		final SushiLibCache cache = new SushiLibCache(OriginAccessBackend.REFLECTION, false, 1);
+		final CandidateBackbone backbone = new CandidateBackbone(SushiLibCacheTest.class.getClassLoader());
+		final String head = ROOT + "." + NODE + ":next";
+		assertSame(root.next, backbone.retrieveOrVisitField(head, candidateObjects, new HashMap<>(), cache));
+		final int id = cache.getSymbols().find(head).id;
+
+		for (int i = 0; i < ORIGINS_PER_ROUND; ++i) {
+			cache.getParsedOrigin(ROOT + "." + NODE + ":f" + i);
+		}
+		collectUntil(cache.getSymbols(), 3); //the root, the last origin and the visit
+		assertNotNull(cache.getSymbols().find(head));
+		assertEquals(id, cache.getSymbols().find(head).id);
+		assertSame(root.next, backbone.getObjectByOrigin(head));
+	}
+
+	@Test
+	public void testStatistics() {
+		final SushiLibCache cache = new SushiLibCache();
+		final ClassLoader classLoader = SushiLibCacheTest.class.getClassLoader();
+		final String head = ROOT + "." + NODE + ":next";
+		cache.getParsedOrigin(head);
+		checkStatistics(cache, 0, 0, 1);
+		cache.getParsedOrigin(head);
+		checkStatistics(cache, 0, 1, 1);
+		cache.getParsedOrigin(head, classLoader); //compiles it
+		checkStatistics(cache, 0, 2, 1);
+		cache.getParsedOrigin(head);
+		cache.getParsedOrigin(head, classLoader);
+		checkStatistics(cache, 2, 2, 1);
+		cache.getParsedOrigin(head + "." + NODE + ":next", classLoader);
+		checkStatistics(cache, 2, 2, 2);
+	}
+
+	@Test
+	public void testPureMethodDeclaredDuringEvaluation() throws Exception {
+		final String counter = PACKAGE + "SushiLibCacheTest$Counter:(I)I:count";
+		final String origin = "<" + counter + "@{V0}@>";
+		final Map<String, Object> candidateObjects = new HashMap<>();
+		candidateObjects.put("{V0}", Integer.valueOf(1));
+		for (OriginAccessBackend backend : OriginAccessBackend.values()) {
+			final SushiLibCache cache = new SushiLibCache(backend);
+			final CandidateBackbone backbone = new CandidateBackbone(SushiLibCacheTest.class.getClassLoader());
+			Counter.invocations = 0;
+			backbone.retrieveOrVisitField(origin, candidateObjects, new HashMap<>(), cache);
+			backbone.retrieveOrVisitField(origin, candidateObjects, new HashMap<>(), cache);
+			assertEquals(backend.toString(), 2, Counter.invocations);
+			cache.addPureMethods(Collections.singleton(counter));
+			backbone.retrieveOrVisitField(origin, candidateObjects, new HashMap<>(), cache);
+			backbone.retrieveOrVisitField(origin, candidateObjects, new HashMap<>(), cache);
+			assertEquals(backend.toString(), 3, Counter.invocations);
+		}
+	}
+
+	private static void checkStatistics(SushiLibCache cache, long hits, long partialHits, long misses) {
+		assertEquals(hits, cache.getHits());
+		assertEquals(partialHits, cache.getPartialHits());
+		assertEquals(misses, cache.getMisses());
+	}
+
+	private static void collectUntil(OriginSymbolTable symbols, int maximumSize) throws InterruptedException {
+		for (int attempt = 0; attempt < 100 && symbols.size() > maximumSize; ++attempt) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertTrue("symbols " + symbols.size(), symbols.size() <= maximumSize);
+	}
+}